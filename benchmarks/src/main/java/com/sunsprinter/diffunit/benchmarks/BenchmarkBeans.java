@@ -0,0 +1,367 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.benchmarks;
+
+
+/**
+ * Beans of different widths used as benchmark inputs.  Property values are derived from a seed so every run translates
+ * exactly the same data.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public final class BenchmarkBeans
+{
+    private BenchmarkBeans()
+    {
+    }
+
+
+    /**
+     * Creates a bean with the given number of properties.
+     *
+     * @param width The number of properties: 2, 8 or 24.
+     * @param seed  The seed the property values are derived from.
+     *
+     * @return The bean.  Will never be <code>null</code>.
+     */
+    public static Object createBean(final int width, final int seed)
+    {
+        switch (width)
+        {
+            case 2:
+                return new NarrowBean(seed);
+            case 8:
+                return new MediumBean(seed);
+            case 24:
+                return new WideBean(seed);
+            default:
+                throw new IllegalArgumentException(String.format("No bean has %d properties.", width));
+        }
+    }
+
+
+    /**
+     * A bean with 2 properties.
+     */
+    public static class NarrowBean
+    {
+        private final String _text01;
+        private final int _count02;
+
+
+        public NarrowBean(final int seed)
+        {
+            _text01 = "value" + seed + "-0";
+            _count02 = seed + 1;
+        }
+
+
+        public String getText01()
+        {
+            return _text01;
+        }
+
+
+        public int getCount02()
+        {
+            return _count02;
+        }
+    }
+
+
+    /**
+     * A bean with 8 properties.
+     */
+    public static class MediumBean
+    {
+        private final String _text01;
+        private final int _count02;
+        private final long _total03;
+        private final boolean _enabled04;
+        private final double _ratio05;
+        private final String _text06;
+        private final int _count07;
+        private final long _total08;
+
+
+        public MediumBean(final int seed)
+        {
+            _text01 = "value" + seed + "-0";
+            _count02 = seed + 1;
+            _total03 = seed * 1000L + 2;
+            _enabled04 = (seed + 3) % 2 == 0;
+            _ratio05 = seed / 4.0 + 4;
+            _text06 = "value" + seed + "-5";
+            _count07 = seed + 6;
+            _total08 = seed * 1000L + 7;
+        }
+
+
+        public String getText01()
+        {
+            return _text01;
+        }
+
+
+        public int getCount02()
+        {
+            return _count02;
+        }
+
+
+        public long getTotal03()
+        {
+            return _total03;
+        }
+
+
+        public boolean isEnabled04()
+        {
+            return _enabled04;
+        }
+
+
+        public double getRatio05()
+        {
+            return _ratio05;
+        }
+
+
+        public String getText06()
+        {
+            return _text06;
+        }
+
+
+        public int getCount07()
+        {
+            return _count07;
+        }
+
+
+        public long getTotal08()
+        {
+            return _total08;
+        }
+    }
+
+
+    /**
+     * A bean with 24 properties.
+     */
+    public static class WideBean
+    {
+        private final String _text01;
+        private final int _count02;
+        private final long _total03;
+        private final boolean _enabled04;
+        private final double _ratio05;
+        private final String _text06;
+        private final int _count07;
+        private final long _total08;
+        private final boolean _enabled09;
+        private final double _ratio10;
+        private final String _text11;
+        private final int _count12;
+        private final long _total13;
+        private final boolean _enabled14;
+        private final double _ratio15;
+        private final String _text16;
+        private final int _count17;
+        private final long _total18;
+        private final boolean _enabled19;
+        private final double _ratio20;
+        private final String _text21;
+        private final int _count22;
+        private final long _total23;
+        private final boolean _enabled24;
+
+
+        public WideBean(final int seed)
+        {
+            _text01 = "value" + seed + "-0";
+            _count02 = seed + 1;
+            _total03 = seed * 1000L + 2;
+            _enabled04 = (seed + 3) % 2 == 0;
+            _ratio05 = seed / 4.0 + 4;
+            _text06 = "value" + seed + "-5";
+            _count07 = seed + 6;
+            _total08 = seed * 1000L + 7;
+            _enabled09 = (seed + 8) % 2 == 0;
+            _ratio10 = seed / 4.0 + 9;
+            _text11 = "value" + seed + "-10";
+            _count12 = seed + 11;
+            _total13 = seed * 1000L + 12;
+            _enabled14 = (seed + 13) % 2 == 0;
+            _ratio15 = seed / 4.0 + 14;
+            _text16 = "value" + seed + "-15";
+            _count17 = seed + 16;
+            _total18 = seed * 1000L + 17;
+            _enabled19 = (seed + 18) % 2 == 0;
+            _ratio20 = seed / 4.0 + 19;
+            _text21 = "value" + seed + "-20";
+            _count22 = seed + 21;
+            _total23 = seed * 1000L + 22;
+            _enabled24 = (seed + 23) % 2 == 0;
+        }
+
+
+        public String getText01()
+        {
+            return _text01;
+        }
+
+
+        public int getCount02()
+        {
+            return _count02;
+        }
+
+
+        public long getTotal03()
+        {
+            return _total03;
+        }
+
+
+        public boolean isEnabled04()
+        {
+            return _enabled04;
+        }
+
+
+        public double getRatio05()
+        {
+            return _ratio05;
+        }
+
+
+        public String getText06()
+        {
+            return _text06;
+        }
+
+
+        public int getCount07()
+        {
+            return _count07;
+        }
+
+
+        public long getTotal08()
+        {
+            return _total08;
+        }
+
+
+        public boolean isEnabled09()
+        {
+            return _enabled09;
+        }
+
+
+        public double getRatio10()
+        {
+            return _ratio10;
+        }
+
+
+        public String getText11()
+        {
+            return _text11;
+        }
+
+
+        public int getCount12()
+        {
+            return _count12;
+        }
+
+
+        public long getTotal13()
+        {
+            return _total13;
+        }
+
+
+        public boolean isEnabled14()
+        {
+            return _enabled14;
+        }
+
+
+        public double getRatio15()
+        {
+            return _ratio15;
+        }
+
+
+        public String getText16()
+        {
+            return _text16;
+        }
+
+
+        public int getCount17()
+        {
+            return _count17;
+        }
+
+
+        public long getTotal18()
+        {
+            return _total18;
+        }
+
+
+        public boolean isEnabled19()
+        {
+            return _enabled19;
+        }
+
+
+        public double getRatio20()
+        {
+            return _ratio20;
+        }
+
+
+        public String getText21()
+        {
+            return _text21;
+        }
+
+
+        public int getCount22()
+        {
+            return _count22;
+        }
+
+
+        public long getTotal23()
+        {
+            return _total23;
+        }
+
+
+        public boolean isEnabled24()
+        {
+            return _enabled24;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.benchmarks;
+
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Runs the DiffUnit benchmarks.  Accepts the same command line options as JMH's own runner.  Unless told otherwise,
+ * results are written in JMH's JSON format to {@value #DEFAULT_RESULT_FILE} so they can be tracked from run to run.
+ * Warmup, measurement and fork settings are fixed by the benchmark classes themselves so that runs are comparable.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public final class BenchmarkRunner
+{
+    /**
+     * The file results are written to if no result file is given on the command line.
+     */
+    public static final String DEFAULT_RESULT_FILE = "diffunit-benchmarks.json";
+
+
+    private BenchmarkRunner()
+    {
+    }
+
+
+    public static void main(final String[] args) throws Exception
+    {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp())
+        {
+            commandLineOptions.showHelp();
+            return;
+        }
+        if (commandLineOptions.shouldList())
+        {
+            new Runner(commandLineOptions).list();
+            return;
+        }
+
+        final ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+        if (!commandLineOptions.getResultFormat().hasValue())
+        {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLineOptions.getResult().hasValue())
+        {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
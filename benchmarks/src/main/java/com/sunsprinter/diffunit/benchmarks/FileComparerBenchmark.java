@@ -0,0 +1,152 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.benchmarks;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sunsprinter.diffunit.core.comparison.AbstractFileComparer;
+import com.sunsprinter.diffunit.core.comparison.DiffUnitComparison;
+import com.sunsprinter.diffunit.core.comparison.InputLocationType;
+import com.sunsprinter.diffunit.core.context.TestingContext;
+
+
+/**
+ * Measures {@link AbstractFileComparer} comparing a generated file with a known good file on the file system.  The
+ * files either match or differ in a single line in the middle.  Mismatches are described either up to the first
+ * difference or, when all differences are reported, with a unified diff.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileComparerBenchmark
+{
+    private static final String FILE_NAME = "output.txt";
+
+    @Param({"10000", "200000"})
+    private int lines;
+
+    @Param({"matching", "mismatching"})
+    private String files;
+
+    @Param({"false", "true"})
+    private boolean reportAllDifferences;
+
+    private File _directory;
+    private File _knownGoodDirectory;
+    private File _generatedFile;
+    private BenchmarkFileComparer _fileComparer;
+
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        _directory = File.createTempFile("diffunit-benchmark", "");
+        FileUtils.deleteQuietly(_directory);
+        _knownGoodDirectory = new File(_directory, "known-good");
+        _generatedFile = new File(new File(_directory, "generated"), FILE_NAME);
+
+        final Random random = new Random(42);
+        final List<String> knownGoodLines = new ArrayList<String>(lines);
+        for (int i = 0; i < lines; i++)
+        {
+            knownGoodLines.add(String.format("line %d: value=%08x", i, random.nextInt()));
+        }
+        FileUtils.writeLines(new File(_knownGoodDirectory, FILE_NAME), knownGoodLines);
+
+        final List<String> generatedLines = new ArrayList<String>(knownGoodLines);
+        if ("mismatching".equals(files))
+        {
+            generatedLines.set(lines / 2, "changed");
+        }
+        FileUtils.writeLines(_generatedFile, generatedLines);
+
+        final TestingContext testingContext = new TestingContext();
+        testingContext.setTest(reportAllDifferences ? new ReportAllDifferencesTest() : new ReportFirstDifferenceTest());
+        _fileComparer = new BenchmarkFileComparer();
+        _fileComparer.setTestingContext(testingContext);
+    }
+
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        FileUtils.deleteDirectory(_directory);
+    }
+
+
+    @Benchmark
+    public String compare() throws Exception
+    {
+        return _fileComparer.compare(_knownGoodDirectory, _generatedFile);
+    }
+
+
+    /**
+     * Exposes the comparison of a single file, returning the failure message rather than failing.
+     */
+    protected static class BenchmarkFileComparer extends AbstractFileComparer
+    {
+        public String compare(final File knownGoodDirectory, final File generatedFile) throws Exception
+        {
+            return compareFile(InputLocationType.FILE_SYSTEM, knownGoodDirectory.getPath(), generatedFile);
+        }
+
+
+        @Override
+        protected void fail(final String message) throws Exception
+        {
+            throw new AssertionError(message);
+        }
+    }
+
+
+    protected static class ReportFirstDifferenceTest
+    {
+    }
+
+
+    @DiffUnitComparison(reportAllDifferences = true)
+    protected static class ReportAllDifferencesTest
+    {
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.benchmarks;
+
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sunsprinter.diffunit.core.instancetracking.ObjectInstanceTracker;
+import com.sunsprinter.diffunit.core.translators.MapTranslator;
+import com.sunsprinter.diffunit.core.translators.RootTranslator;
+import com.sunsprinter.diffunit.core.translators.ToXmlTranslator;
+import com.sunsprinter.diffunit.core.translators.TranslationException;
+
+
+/**
+ * Measures {@link MapTranslator} on large unsorted maps.  The map's entries are translated as they are by default,
+ * with each key and value pair rendered as XML, so the time covers sorting the keys as well as writing the entries.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapTranslatorBenchmark
+{
+    @Param({"1000", "100000"})
+    private int size;
+
+    private RootTranslator _rootTranslator;
+    private Map<Object, Object> _map;
+
+
+    @Setup
+    public void setUp()
+    {
+        final ObjectInstanceTracker instanceTracker = new ObjectInstanceTracker();
+
+        _rootTranslator = new RootTranslator();
+        _rootTranslator.bind(new MapTranslator<Map<Object, Object>>().<MapTranslator<Map<Object, Object>>>use(_rootTranslator)
+                                                                     .use(instanceTracker),
+                             Map.class);
+        _rootTranslator.bind(new ToXmlTranslator<MapTranslator.KeyValuePair>()
+                                     .<ToXmlTranslator<MapTranslator.KeyValuePair>>use(_rootTranslator)
+                                     .use(instanceTracker),
+                             MapTranslator.KeyValuePair.class);
+
+        // A fixed seed gives the same keys, in the same insertion order, on every run.
+        final Random random = new Random(42);
+        _map = new HashMap<Object, Object>();
+        while (_map.size() < size)
+        {
+            _map.put(String.format("key-%08d", random.nextInt(Integer.MAX_VALUE)), random.nextInt());
+        }
+    }
+
+
+    @Benchmark
+    public String translate() throws TranslationException
+    {
+        return _rootTranslator.translate(_map);
+    }
+}
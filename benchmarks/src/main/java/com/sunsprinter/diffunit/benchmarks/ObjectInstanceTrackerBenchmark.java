@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.benchmarks;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sunsprinter.diffunit.core.instancetracking.IObjectIdentifier;
+import com.sunsprinter.diffunit.core.instancetracking.IObjectInstanceTracker;
+import com.sunsprinter.diffunit.core.instancetracking.ObjectInstanceTracker;
+import com.sunsprinter.diffunit.core.instancetracking.WeakObjectInstanceTracker;
+
+
+/**
+ * Measures {@link IObjectInstanceTracker#getObjectId(Object)} with four threads sharing one tracker.  {@link #known()}
+ * looks up objects the tracker has already numbered, which is the common case once a test is under way.  {@link
+ * #firstSight()} presents a new object every time, so every call numbers an object.  The tracker is emptied before
+ * each iteration so it doesn't grow for the length of the run.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ObjectInstanceTrackerBenchmark
+{
+    private static final int KNOWN_OBJECTS = 1024;
+
+    @Param({"STRONG", "WEAK"})
+    private String mode;
+
+    private IObjectInstanceTracker _instanceTracker;
+    private Object[] _knownObjects;
+
+
+    @Setup(Level.Iteration)
+    public void setUp()
+    {
+        _instanceTracker = "WEAK".equals(mode) ? new WeakObjectInstanceTracker() : new ObjectInstanceTracker();
+
+        // Objects of a few different classes, so several per-class counters are in use.
+        _knownObjects = new Object[KNOWN_OBJECTS];
+        for (int i = 0; i < KNOWN_OBJECTS; i++)
+        {
+            switch (i % 4)
+            {
+                case 0:
+                    _knownObjects[i] = new Object();
+                    break;
+                case 1:
+                    _knownObjects[i] = new StringBuilder();
+                    break;
+                case 2:
+                    _knownObjects[i] = new BenchmarkBeans.NarrowBean(i);
+                    break;
+                default:
+                    _knownObjects[i] = new BenchmarkBeans.WideBean(i);
+                    break;
+            }
+            _instanceTracker.getObjectId(_knownObjects[i]);
+        }
+    }
+
+
+    @Benchmark
+    public IObjectIdentifier known(final Cursor cursor)
+    {
+        return _instanceTracker.getObjectId(_knownObjects[cursor.next()]);
+    }
+
+
+    @Benchmark
+    public IObjectIdentifier firstSight()
+    {
+        return _instanceTracker.getObjectId(new Object());
+    }
+
+
+    /**
+     * Each thread walks through the known objects from its own starting point.
+     */
+    @State(Scope.Thread)
+    public static class Cursor
+    {
+        private int _index;
+
+
+        @Setup
+        public void setUp()
+        {
+            _index = (int)(Thread.currentThread().getId() % KNOWN_OBJECTS);
+        }
+
+
+        public int next()
+        {
+            _index = (_index + 1) % KNOWN_OBJECTS;
+            return _index;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.benchmarks;
+
+
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sunsprinter.diffunit.core.translators.PropertyAccessor;
+
+
+/**
+ * Compares reading every property of a 24 property bean through {@link PropertyAccessor}, which uses method handles,
+ * with reading them through {@link Method#invoke(Object, Object...)}.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertyAccessorBenchmark
+{
+    private Object _bean;
+    private PropertyAccessor[] _propertyAccessors;
+    private Method[] _readMethods;
+
+
+    @Setup
+    public void setUp() throws Exception
+    {
+        _bean = new BenchmarkBeans.WideBean(1);
+
+        final List<PropertyAccessor> propertyAccessors = new ArrayList<PropertyAccessor>();
+        final List<Method> readMethods = new ArrayList<Method>();
+        for (final PropertyDescriptor propertyDescriptor : Introspector.getBeanInfo(_bean.getClass(), Object.class)
+                                                                       .getPropertyDescriptors())
+        {
+            propertyAccessors.add(new PropertyAccessor(propertyDescriptor));
+            readMethods.add(propertyDescriptor.getReadMethod());
+        }
+
+        _propertyAccessors = propertyAccessors.toArray(new PropertyAccessor[propertyAccessors.size()]);
+        _readMethods = readMethods.toArray(new Method[readMethods.size()]);
+    }
+
+
+    @Benchmark
+    public void methodHandle(final Blackhole blackhole) throws Exception
+    {
+        for (final PropertyAccessor propertyAccessor : _propertyAccessors)
+        {
+            blackhole.consume(propertyAccessor.read(_bean));
+        }
+    }
+
+
+    @Benchmark
+    public void reflection(final Blackhole blackhole) throws Exception
+    {
+        for (final Method readMethod : _readMethods)
+        {
+            blackhole.consume(readMethod.invoke(_bean));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.benchmarks;
+
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sunsprinter.diffunit.core.translators.ITranslator;
+import com.sunsprinter.diffunit.core.translators.RegExReplacementPair;
+import com.sunsprinter.diffunit.core.translators.RegExReplacementTranslatorDecorator;
+import com.sunsprinter.diffunit.core.translators.TranslationException;
+
+
+/**
+ * Measures {@link RegExReplacementTranslatorDecorator} applying 1, 4 and 16 replacement pairs to a 200 line
+ * translation, with the pairs applied one after another or fused into a single expression.  Every pair matches a few
+ * lines of the text.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegExReplacementBenchmark
+{
+    private static final int LINES = 200;
+
+    @Param({"1", "4", "16"})
+    private int pairs;
+
+    @Param({"false", "true"})
+    private boolean fuse;
+
+    private ITranslator<Object> _translator;
+    private String _text;
+
+
+    @Setup
+    public void setUp()
+    {
+        // The proxy implements the interfaces the delegate's class declares, so the delegate implements ITranslator
+        // directly.
+        final RegExReplacementTranslatorDecorator<ITranslator<Object>> decorator =
+                new RegExReplacementTranslatorDecorator<ITranslator<Object>>(new ITranslator<Object>()
+                {
+                    @Override
+                    public String translate(final Object object) throws TranslationException
+                    {
+                        return String.valueOf(object);
+                    }
+                });
+        decorator.fuseReplacementPairs(fuse);
+        for (int i = 0; i < pairs; i++)
+        {
+            decorator.add(new RegExReplacementPair(String.format("id%d=[0-9a-f]{8}", i), String.format("id%d=<id>", i)));
+        }
+        _translator = decorator.getProxy();
+
+        final Random random = new Random(42);
+        final StringBuilder sb = new StringBuilder();
+        for (int line = 0; line < LINES; line++)
+        {
+            sb.append(String.format("line %d id%d=%08x state=%s%n", line, line % 16, random.nextInt(), random.nextBoolean()));
+        }
+        _text = sb.toString();
+    }
+
+
+    @Benchmark
+    public String translate() throws TranslationException
+    {
+        return _translator.translate(_text);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.benchmarks;
+
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sunsprinter.diffunit.core.translators.RootTranslator;
+import com.sunsprinter.diffunit.core.translators.ToStringTranslator;
+import com.sunsprinter.diffunit.core.translators.TypeBindingTranslator;
+import com.sunsprinter.diffunit.core.translators.TranslationException;
+
+
+/**
+ * Measures how long {@link TypeBindingTranslator} takes to find the translator bound to an object's class.  The bound
+ * translators do as little as possible, so the lookup dominates.  Objects are chosen so that the binding is found on
+ * the class itself, on an interface of a superclass, on a distant superclass, or not at all.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypeBindingTranslatorBenchmark
+{
+    @Param({"class", "interface", "superclass", "unbound"})
+    private String binding;
+
+    private TypeBindingTranslator _translator;
+    private Object _object;
+
+
+    @Setup
+    public void setUp()
+    {
+        _translator = new RootTranslator();
+        _translator.bind(new ToStringTranslator<Object>(), String.class);
+        _translator.bind(new ToStringTranslator<Object>(), Iterable.class);
+        _translator.bind(new ToStringTranslator<Object>(), Throwable.class);
+
+        if ("class".equals(binding))
+        {
+            _object = "text";
+        }
+        else if ("interface".equals(binding))
+        {
+            _object = new ArrayList<Object>();
+        }
+        else if ("superclass".equals(binding))
+        {
+            _object = new IllegalStateException("message");
+        }
+        else
+        {
+            _object = Boolean.TRUE;
+        }
+    }
+
+
+    @Benchmark
+    public String translate() throws TranslationException
+    {
+        return _translator.translate(_object);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.benchmarks;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sunsprinter.diffunit.core.instancetracking.ObjectInstanceTracker;
+import com.sunsprinter.diffunit.core.translators.ToPrettyXmlTranslator;
+import com.sunsprinter.diffunit.core.translators.ToStringTranslator;
+import com.sunsprinter.diffunit.core.translators.ToXmlTranslator;
+import com.sunsprinter.diffunit.core.translators.TranslationException;
+
+
+/**
+ * Measures {@link ToXmlTranslator} and {@link ToPrettyXmlTranslator} on beans with 2, 8 and 24 properties.  Property
+ * values are translated with {@link ToStringTranslator} so the time is spent reading properties and writing XML.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XmlTranslatorBenchmark
+{
+    @Param({"2", "8", "24"})
+    private int width;
+
+    private ToXmlTranslator<Object> _xmlTranslator;
+    private ToXmlTranslator<Object> _prettyXmlTranslator;
+    private Object _bean;
+
+
+    @Setup
+    public void setUp()
+    {
+        _xmlTranslator = new ToXmlTranslator<Object>()
+                .<ToXmlTranslator<Object>>use(new ToStringTranslator<Object>())
+                .use(new ObjectInstanceTracker());
+        _prettyXmlTranslator = new ToPrettyXmlTranslator<Object>()
+                .<ToPrettyXmlTranslator<Object>>use(new ToStringTranslator<Object>())
+                .use(new ObjectInstanceTracker());
+        _bean = BenchmarkBeans.createBean(width, 1);
+    }
+
+
+    @Benchmark
+    public String xml() throws TranslationException
+    {
+        return _xmlTranslator.translate(_bean);
+    }
+
+
+    @Benchmark
+    public String prettyXml() throws TranslationException
+    {
+        return _prettyXmlTranslator.translate(_bean);
+    }
+}
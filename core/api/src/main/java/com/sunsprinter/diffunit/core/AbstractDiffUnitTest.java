@@ -94,6 +94,13 @@ public class AbstractDiffUnitTest implements ITestingContext, IRootTranslator, I
     }
 
 
+    @Override
+    public IRootTranslator getUndecoratedRootTranslator()
+    {
+        return getTestingContext().getUndecoratedRootTranslator();
+    }
+
+
     @Override
     public Collection<Object> getOutputObjects()
     {
@@ -171,9 +178,30 @@ public class AbstractDiffUnitTest implements ITestingContext, IRootTranslator, I
     }
 
 
+    @Override
+    public void beginFile(final String fileName) throws RuntimeException
+    {
+        getOutputManager().beginFile(fileName);
+    }
+
+
     @Override
     public void writeFile(final String fileName) throws RuntimeException
     {
         getOutputManager().writeFile(fileName);
     }
+
+
+    @Override
+    public boolean hasUnwrittenOutput()
+    {
+        return getOutputManager().hasUnwrittenOutput();
+    }
+
+
+    @Override
+    public void abandonUnwrittenOutput()
+    {
+        getOutputManager().abandonUnwrittenOutput();
+    }
 }
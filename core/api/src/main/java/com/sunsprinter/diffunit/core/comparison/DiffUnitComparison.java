@@ -0,0 +1,74 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.comparison;
+
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Configures how generated files are compared with their known good versions.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface DiffUnitComparison
+{
+    /**
+     * By default comparison of a file stops at the first differing line.  Set to <code>true</code> to read both files
+     * to the end and include a unified diff of every difference in the failure message.
+     */
+    boolean reportAllDifferences() default false;
+
+    /**
+     * The maximum number of diff hunks included in a failure message when all differences are reported.
+     */
+    int maximumReportedDifferences() default 100;
+
+    /**
+     * The number of unchanged lines shown around each difference when all differences are reported.
+     */
+    int contextLines() default 3;
+
+    /**
+     * By default files are compared one at a time and the test fails at the first file that doesn't match.  Set to
+     * <code>true</code> to compare all files concurrently and report every file that doesn't match, in the order the
+     * files were written.
+     */
+    boolean parallel() default false;
+
+    /**
+     * The number of threads used to compare files in parallel.  Zero, the default, means one per available processor.
+     */
+    int threads() default 0;
+
+    /**
+     * Set to <code>true</code> to keep a manifest of the digests of the known good files in the known good directory.
+     * A generated file whose digest matches the manifest entry for its known good file then passes without either file
+     * being read.  An entry is only trusted while the known good file's size and modification time are those recorded
+     * with it, and it was recorded at least a couple of seconds after the file was last modified.  Stale and missing
+     * entries are refreshed whenever a byte for byte comparison finds the files identical.  Known good files on the
+     * class path have their manifest written next to the copies on the class path, such as
+     * <code>target/test-classes</code>, not in the source tree.
+     */
+    boolean digestManifest() default false;
+}
@@ -28,6 +28,48 @@ import java.io.File;
  */
 public interface IFileComparer
 {
+    /**
+     * The {@link java.security.MessageDigest} algorithm used for the digests given to {@link
+     * #registerFileToCompare(File, byte[])}.
+     */
+    String DIGEST_ALGORITHM = "SHA-256";
+
+
     void registerFileToCompare(final File file);
+
+    /**
+     * Registers a generated file together with the digest of its contents, computed while the file was written.  The
+     * comparer may use the digest to decide whether the file matches its known good version without reading either
+     * file.
+     *
+     * @param file   The generated file.  May not be <code>null</code>.
+     * @param digest The {@link #DIGEST_ALGORITHM} digest of the file's contents.  May be <code>null</code>, in which
+     *               case the file is registered as by {@link #registerFileToCompare(File)}.
+     */
+    void registerFileToCompare(final File file, final byte[] digest);
+
+    /**
+     * Registers a generated file that is held in memory rather than written to disk.  The comparer writes the contents
+     * to the file only if they don't match the known good version, so the developer can inspect them.
+     *
+     * @param file     The file the contents would have been written to.  May not be <code>null</code>.
+     * @param contents The contents of the file.  May not be <code>null</code>.
+     * @param digest   The {@link #DIGEST_ALGORITHM} digest of the contents.  May be <code>null</code>.
+     */
+    void registerContentsToCompare(final File file, final byte[] contents, final byte[] digest);
+
+    /**
+     * Starts comparing a file with its known good version while it is being written.  The file must still be
+     * registered for comparison once it has been written.  If there is no known good file the comparison accepts every
+     * line, so a new test still produces its output.
+     *
+     * @param fileName The name of the file being written.  May not be <code>null</code>.
+     *
+     * @return The comparison.  Will never be <code>null</code>.
+     *
+     * @throws Exception If the known good file cannot be opened.
+     */
+    IIncrementalComparison beginIncrementalComparison(final String fileName) throws Exception;
+
     void compareAllFiles() throws Exception;
 }
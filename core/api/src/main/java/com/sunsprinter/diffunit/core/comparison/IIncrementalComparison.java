@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.comparison;
+
+
+import java.io.Closeable;
+
+
+/**
+ * Compares a generated file with its known good version line by line as the file is written, so a test can be stopped
+ * at the first difference rather than after it has written all its output.  Closing the comparison releases the known
+ * good file.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public interface IIncrementalComparison extends Closeable
+{
+    /**
+     * Compares the next lines of the generated file with those of the known good file and fails, with the same first
+     * difference message as a full comparison, if they differ.
+     *
+     * @param text The text just written to the generated file, as written by {@link java.io.PrintWriter#println(String)}.
+     *             May contain several lines.  May not be <code>null</code>.
+     *
+     * @throws Exception If the lines differ or the known good file cannot be read.
+     */
+    void compareLines(final String text) throws Exception;
+}
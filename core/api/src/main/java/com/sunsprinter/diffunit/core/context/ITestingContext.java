@@ -41,6 +41,13 @@ public interface ITestingContext
     Object getTest();
     IObjectInstanceTracker getInstanceTracker();
     IRootTranslator getRootTranslator();
+
+    /**
+     * @return The root translator without the decorators applied to whole translations, such as regular expression
+     *         replacement.  Translators delegate nested translations to this translator so that such decorators are
+     *         applied once, to the outermost translation.  Will never be <code>null</code>.
+     */
+    IRootTranslator getUndecoratedRootTranslator();
     Collection<Object> getOutputObjects();
     IOutputManager getOutputManager();
     IFileComparer getFileComparer();
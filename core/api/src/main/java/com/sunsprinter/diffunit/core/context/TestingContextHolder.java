@@ -18,12 +18,59 @@ package com.sunsprinter.diffunit.core.context;
 
 
 /**
- * TestingContextHolder
+ * Holds the testing context of the test running on the current thread.  Each thread has its own context, so tests may
+ * run in parallel without seeing each other's translators, output objects or instance trackers.  Threads started by a
+ * test inherit the test's context, so code under test that does its work on other threads still writes to the right
+ * test's output.
  *
  * @author Kevan Dunsmore
  * @created 2011/11/11
  */
 public class TestingContextHolder
 {
-    public static ITestingContext CONTEXT;
+    private static final ThreadLocal<ITestingContext> THREAD_CONTEXT = new InheritableThreadLocal<ITestingContext>();
+
+    /**
+     * The testing context most recently set on any thread.  Kept up to date for code that reads the field directly.
+     * Assigning it has no effect.
+     *
+     * @deprecated Contexts are held per thread.  Call {@link #get()} instead.
+     */
+    @Deprecated
+    public static volatile ITestingContext CONTEXT;
+
+
+    /**
+     * @return The testing context of the current thread, or <code>null</code> if no test is running on it.
+     */
+    public static ITestingContext get()
+    {
+        return THREAD_CONTEXT.get();
+    }
+
+
+    /**
+     * Sets the testing context of the current thread.  Threads subsequently started by the current thread inherit it.
+     *
+     * @param testingContext The testing context.  May be <code>null</code>.
+     */
+    public static void set(final ITestingContext testingContext)
+    {
+        THREAD_CONTEXT.set(testingContext);
+        CONTEXT = testingContext;
+    }
+
+
+    /**
+     * Removes the testing context from the current thread.  Called when a test finishes so the context (and everything
+     * the test wrote) can be garbage collected and is never seen by a later test run on a pooled thread.
+     */
+    public static void clear()
+    {
+        if (CONTEXT == THREAD_CONTEXT.get())
+        {
+            CONTEXT = null;
+        }
+        THREAD_CONTEXT.remove();
+    }
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.instancetracking;
+
+
+/**
+ * Determines how the instance tracker holds on to the objects it has identified.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public enum InstanceTrackingMode
+{
+    /**
+     * Every object identified is kept until the tracker is reset.  This is the default.
+     */
+    STRONG,
+
+    /**
+     * Objects are held weakly, so the tracker doesn't stop them being garbage collected.  Only the class name and
+     * instance number of each object are retained for output.  Use for long running tests that translate large numbers
+     * of short lived objects.
+     */
+    WEAK
+}
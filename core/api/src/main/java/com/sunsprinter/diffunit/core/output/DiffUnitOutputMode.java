@@ -0,0 +1,45 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.output;
+
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * DiffUnitOutputMode
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface DiffUnitOutputMode
+{
+    OutputMode mode() default OutputMode.BUFFERED;
+
+    /**
+     * Set to <code>true</code> to compare each line with the known good file as it is written, and stop the test at the
+     * first line that differs.  Requires {@link OutputMode#STREAMING} mode.  Initialization fails in any other mode.
+     * Output is compared with the known good file named by {@link IOutputManager#beginFile(String)}, or {@link
+     * IOutputManager#DEFAULT_FILE_NAME} if the test doesn't name one.
+     */
+    boolean failFast() default false;
+}
@@ -25,9 +25,43 @@ package com.sunsprinter.diffunit.core.output;
  */
 public interface IOutputManager
 {
+    /**
+     * The system property that, when <code>true</code>, has output files written to disk even in {@link
+     * OutputMode#IN_MEMORY} mode.
+     */
+    String KEEP_OUTPUT_PROPERTY = "diffunit.keepOutput";
+
+    /**
+     * The name of the file output is written to if the test doesn't name one.
+     */
+    String DEFAULT_FILE_NAME = "results.txt";
+
+
     void addBlankLine() throws RuntimeException;
     void add(Object object) throws RuntimeException;
     void addAsString(Object object) throws RuntimeException;
 
+    /**
+     * Names the file that output added from now on will be written to.  Only needed when output is compared as it is
+     * written (see {@link DiffUnitOutputMode#failFast()}) and the file is not to be called {@link #DEFAULT_FILE_NAME}.
+     * The name must be the one later given to {@link #writeFile(String)}, which fails if output was compared with a
+     * different file.
+     *
+     * @param fileName The name of the file.  May not be <code>null</code>.
+     */
+    void beginFile(final String fileName) throws RuntimeException;
+
     void writeFile(final String fileName) throws RuntimeException;
+
+    /**
+     * @return <code>true</code> if objects have been added since the last file was written.
+     */
+    boolean hasUnwrittenOutput();
+
+    /**
+     * Discards any output added since the last file was written and releases the files held open for it.  Called when
+     * a test finishes, so a test that stops before writing its output leaves nothing open.  Output already streamed to
+     * the output directory is left there.
+     */
+    void abandonUnwrittenOutput();
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.output;
+
+
+/**
+ * Determines when the output manager translates and writes the objects added to it.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public enum OutputMode
+{
+    /**
+     * Objects are held in memory and translated when the file is written.  This is the default.
+     */
+    BUFFERED,
+
+    /**
+     * Objects are translated as they are added and written straight to the file being built.  Memory use stays flat no
+     * matter how much output the test generates, but objects are translated in their state at the time they're added
+     * rather than at the time the file is written.
+     */
+    STREAMING,
+
+    /**
+     * Objects are held in memory and translated when the file is written, as in {@link #BUFFERED} mode, but the file
+     * is kept in memory for comparison rather than written to the output directory.  It is only written to disk if it
+     * doesn't match its known good version, or if the {@link IOutputManager#KEEP_OUTPUT_PROPERTY} system property is
+     * <code>true</code>, in which case this mode behaves just like {@link #BUFFERED}.
+     */
+    IN_MEMORY
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Limits how much of an object graph the root translator will translate.  Objects beyond either limit are written as
+ * short back references, such as <code>ref com.example.Foo#3</code>, so that very deep or very large graphs can't run
+ * away with a test.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface DiffUnitTranslationLimits
+{
+    /**
+     * @return How deeply translations of bound types may be nested, or zero for no limit.
+     */
+    int maximumDepth() default 0;
+
+    /**
+     * @return How many objects of bound types may be translated in a single top level translation, or zero for no
+     *         limit.
+     */
+    int maximumNodes() default 0;
+}
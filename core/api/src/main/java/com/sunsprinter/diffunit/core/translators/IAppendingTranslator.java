@@ -0,0 +1,39 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+/**
+ * A translator that can append its translation to a buffer supplied by the caller rather than returning a new string.
+ * Composite translators pass the same buffer on to their delegates, so a whole object graph translates into one
+ * buffer.  {@link #translate(Object)} remains available and gives the same text.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public interface IAppendingTranslator<T> extends ITranslator<T>
+{
+    /**
+     * Translates the given object, appending the translation to the sink.
+     *
+     * @param object The object to translate.  May be <code>null</code>.
+     * @param sink   The buffer to append the translation to.  May not be <code>null</code>.
+     *
+     * @throws TranslationException If the object cannot be translated.  The sink may hold part of the translation.
+     */
+    void translate(T object, StringBuilder sink) throws TranslationException;
+}
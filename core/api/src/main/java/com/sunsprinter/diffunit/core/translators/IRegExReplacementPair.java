@@ -17,6 +17,9 @@
 package com.sunsprinter.diffunit.core.translators;
 
 
+import java.util.regex.Pattern;
+
+
 /**
  * IRegExReplacementPair
  *
@@ -27,4 +30,20 @@ public interface IRegExReplacementPair
 {
     String getRegExp();
     ITranslator<String> getTranslator();
+
+    /**
+     * Returns the compiled form of {@link #getRegExp()}.  Implementations should compile the expression once and return
+     * the same pattern on every call.
+     *
+     * @return The pattern, or <code>null</code> to have the expression compiled by the caller.
+     */
+    Pattern getPattern();
+
+    /**
+     * Returns text that appears in every string the pattern matches.  Strings that don't contain the text are passed
+     * over without running the pattern at all.
+     *
+     * @return The required text, or <code>null</code> if there isn't any.
+     */
+    String getRequiredLiteral();
 }
@@ -37,7 +37,7 @@ public class AbstractTestingContextUser
 
     protected ITestingContext getTestingContext()
     {
-        return _testingContext == null ? TestingContextHolder.CONTEXT : _testingContext;
+        return _testingContext == null ? TestingContextHolder.get() : _testingContext;
     }
 
 
@@ -17,15 +17,33 @@
 package com.sunsprinter.diffunit.core.comparison;
 
 
+import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
-
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
@@ -40,9 +58,40 @@ import com.sunsprinter.diffunit.core.context.ITestingContext;
  */
 public abstract class AbstractFileComparer implements IFileComparer
 {
+    /**
+     * The number of differences described in a failure message when the test doesn't say otherwise.
+     */
+    private static final int DEFAULT_MAXIMUM_REPORTED_DIFFERENCES = 100;
+
+    /**
+     * The number of unchanged lines shown around each difference when the test doesn't say otherwise.
+     */
+    private static final int DEFAULT_CONTEXT_LINES = 3;
+
+    /**
+     * The largest part of a file that is memory mapped at once when checking whether files are identical.
+     */
+    private static final long MAPPING_WINDOW_SIZE = 64L * 1024 * 1024;
+
     private ITestingContext _testingContext;
     private Collection<File> _filesToCompare = new LinkedList<File>();
 
+    /**
+     * The digests of the generated files registered with one, keyed by file.
+     */
+    private Map<File, byte[]> _generatedFileDigests = new HashMap<File, byte[]>();
+
+    /**
+     * The contents of the generated files that are held in memory rather than written to disk, keyed by file.
+     */
+    private Map<File, byte[]> _generatedFileContents = new HashMap<File, byte[]>();
+
+    /**
+     * The digest manifest of the known good directory.  Only set while {@link #compareAllFiles()} is running, and only
+     * if the test asks for a manifest (see {@link DiffUnitComparison#digestManifest()}).
+     */
+    private DigestManifest _digestManifest;
+
 
     protected Collection<File> getFilesToCompare()
     {
@@ -56,6 +105,42 @@ public abstract class AbstractFileComparer implements IFileComparer
     }
 
 
+    protected Map<File, byte[]> getGeneratedFileDigests()
+    {
+        return _generatedFileDigests;
+    }
+
+
+    protected void setGeneratedFileDigests(final Map<File, byte[]> generatedFileDigests)
+    {
+        _generatedFileDigests = generatedFileDigests;
+    }
+
+
+    protected Map<File, byte[]> getGeneratedFileContents()
+    {
+        return _generatedFileContents;
+    }
+
+
+    protected void setGeneratedFileContents(final Map<File, byte[]> generatedFileContents)
+    {
+        _generatedFileContents = generatedFileContents;
+    }
+
+
+    protected DigestManifest getDigestManifest()
+    {
+        return _digestManifest;
+    }
+
+
+    protected void setDigestManifest(final DigestManifest digestManifest)
+    {
+        _digestManifest = digestManifest;
+    }
+
+
     protected ITestingContext getTestingContext()
     {
         return _testingContext;
@@ -75,132 +160,616 @@ public abstract class AbstractFileComparer implements IFileComparer
     }
 
 
+    @Override
+    public void registerFileToCompare(final File file, final byte[] digest)
+    {
+        registerFileToCompare(file);
+        if (digest != null)
+        {
+            getGeneratedFileDigests().put(file, digest);
+        }
+    }
+
+
+    @Override
+    public void registerContentsToCompare(final File file, final byte[] contents, final byte[] digest)
+    {
+        registerFileToCompare(file, digest);
+        getGeneratedFileContents().put(file, contents);
+    }
+
+
+    @Override
+    public IIncrementalComparison beginIncrementalComparison(final String fileName) throws Exception
+    {
+        final InputLocationType locationType = determineInputLocationType();
+        final String inputStreamLocation = determineInputLocation(locationType) + "/" + fileName;
+
+        final InputStream knownGoodInputStream = openKnownGoodFile(locationType, inputStreamLocation);
+        return new IncrementalComparison(knownGoodInputStream,
+                                         determineKnownGoodFullPath(locationType, inputStreamLocation),
+                                         new File(getTestingContext().getOutputDirectory(), fileName));
+    }
+
+
     @Override
     public void compareAllFiles() throws Exception
     {
-        // Get the input location type from the annotation on the class.  If we don't have one we default to CLASSPATH.
+        final InputLocationType locationType = determineInputLocationType();
+        final String inputLocation = determineInputLocation(locationType);
+
+        setDigestManifest(isDigestManifest() ? loadDigestManifest(locationType, inputLocation) : null);
+        try
+        {
+            // Go through all the files we wrote and compare them against the known good ones stored in the input location.
+            if (isCompareInParallel() && getFilesToCompare().size() > 1)
+            {
+                compareFilesInParallel(locationType, inputLocation);
+            }
+            else
+            {
+                for (final File generatedFile : getFilesToCompare())
+                {
+                    final String failureMessage = compareFile(locationType, inputLocation, generatedFile);
+                    if (failureMessage != null)
+                    {
+                        fail(failureMessage);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            storeDigestManifest();
+        }
+    }
+
+
+    /**
+     * Gets the input location type from the annotation on the class.  If we don't have one we default to CLASSPATH.
+     *
+     * @return The type of the known good file location.  Will never be <code>null</code>.
+     */
+    protected InputLocationType determineInputLocationType()
+    {
+        final DiffUnitInputLocation classInputLocationAnnotation =
+                getTestingContext().getTestClass().getAnnotation(DiffUnitInputLocation.class);
+        return classInputLocationAnnotation == null ? InputLocationType.CLASSPATH : classInputLocationAnnotation.locationType();
+    }
+
+
+    /**
+     * Figures out the input location path, from the annotation on the class if there is one or from the test class and
+     * name if not.
+     *
+     * @param locationType The type of the known good file location.  May not be <code>null</code>.
+     *
+     * @return The location of the known good files.  Will never be <code>null</code>.
+     */
+    protected String determineInputLocation(final InputLocationType locationType)
+    {
         final DiffUnitInputLocation classInputLocationAnnotation =
                 getTestingContext().getTestClass().getAnnotation(DiffUnitInputLocation.class);
-        final InputLocationType locationType = classInputLocationAnnotation == null ? InputLocationType.CLASSPATH : classInputLocationAnnotation.locationType();
         final String classInputLocation = classInputLocationAnnotation == null ? null : classInputLocationAnnotation.location();
 
-        // Figure out the input location path by checking to see what our location type is.
-        final String inputLocation;
         if (locationType == InputLocationType.CLASSPATH)
         {
-            inputLocation = classInputLocation == null ? String.format("/%s/%s",
-                                                                       getTestingContext().getTestClass().getSimpleName(),
-                                                                       getTestingContext().getTestName()) : classInputLocation;
+            return classInputLocation == null ? String.format("/%s/%s",
+                                                              getTestingContext().getTestClass().getSimpleName(),
+                                                              getTestingContext().getTestName()) : classInputLocation;
         }
         else
         {
-            inputLocation = classInputLocation == null ? String.format("src/test/resources/%s/%s",
-                                                                       getTestingContext().getTestClass().getSimpleName(),
-                                                                       getTestingContext().getTestName()) : classInputLocation;
+            return classInputLocation == null ? String.format("src/test/resources/%s/%s",
+                                                              getTestingContext().getTestClass().getSimpleName(),
+                                                              getTestingContext().getTestName()) : classInputLocation;
+        }
+    }
+
+
+    /**
+     * Loads the digest manifest of the known good directory.
+     *
+     * @param locationType  The type of the known good file location.  May not be <code>null</code>.
+     * @param inputLocation The location of the known good files.  May not be <code>null</code>.
+     *
+     * @return The manifest, or <code>null</code> if the known good files are not in a directory on the file system or
+     *         the manifest can't be read.
+     */
+    protected DigestManifest loadDigestManifest(final InputLocationType locationType, final String inputLocation)
+    {
+        final File knownGoodDirectory = locateKnownGoodFile(locationType, inputLocation);
+        if (knownGoodDirectory == null || !knownGoodDirectory.isDirectory())
+        {
+            return null;
+        }
+
+        final DigestManifest digestManifest = new DigestManifest(knownGoodDirectory);
+        try
+        {
+            digestManifest.load();
         }
+        catch (final IOException e)
+        {
+            // The manifest only saves us reading files, so we carry on without it.
+            return null;
+        }
+
+        return digestManifest;
+    }
+
 
-        // Go through all the files we wrote and compare them against the known good ones stored in the input location.
-        for (final File generatedFile : getFilesToCompare())
+    /**
+     * Writes out any digests recorded in the digest manifest during the comparison.  The manifest only saves us reading
+     * files, so failing to write it doesn't fail the test.
+     */
+    protected void storeDigestManifest()
+    {
+        final DigestManifest digestManifest = getDigestManifest();
+        setDigestManifest(null);
+        if (digestManifest != null)
         {
-            final String knownGoodTextFileName = generatedFile.getName();
-            InputStream knownGoodInputStream = null;
-            InputStream generatedInputStream = null;
             try
             {
-                final String inputStreamLocation = inputLocation + "/" + knownGoodTextFileName;
-                if (locationType == InputLocationType.CLASSPATH)
+                digestManifest.store();
+            }
+            catch (final IOException e)
+            {
+                // Do nothing here.  The next comparison will simply read the files again.
+            }
+        }
+    }
+
+
+    /**
+     * Compares all the files on a fixed size pool of threads (see {@link DiffUnitComparison#threads()}).  Every file is
+     * compared, whether or not others fail.  The failures are then reported together, in the order in which the files
+     * were registered, so the report is the same however the comparisons were scheduled.
+     *
+     * @param locationType  The type of the known good file location.  May not be <code>null</code>.
+     * @param inputLocation The location of the known good files.  May not be <code>null</code>.
+     *
+     * @throws Exception If a file cannot be compared.
+     */
+    protected void compareFilesInParallel(final InputLocationType locationType, final String inputLocation) throws Exception
+    {
+        final ExecutorService executorService =
+                Executors.newFixedThreadPool(Math.min(getComparisonThreads(), getFilesToCompare().size()));
+        try
+        {
+            final List<Future<String>> futures = new ArrayList<Future<String>>(getFilesToCompare().size());
+            for (final File generatedFile : getFilesToCompare())
+            {
+                futures.add(executorService.submit(new Callable<String>()
                 {
+                    @Override
+                    public String call() throws Exception
+                    {
+                        return compareFile(locationType, inputLocation, generatedFile);
+                    }
+                }));
+            }
 
-                    knownGoodInputStream = getClass().getResourceAsStream(inputStreamLocation);
+            final StringBuilder failureBuilder = new StringBuilder();
+            for (final Future<String> future : futures)
+            {
+                final String failureMessage;
+                try
+                {
+                    failureMessage = future.get();
                 }
-                else
+                catch (final ExecutionException e)
                 {
-                    try
+                    if (e.getCause() instanceof Exception)
                     {
-                        knownGoodInputStream = new FileInputStream(inputStreamLocation);
+                        throw (Exception)e.getCause();
                     }
-                    catch (final FileNotFoundException e)
+                    throw e;
+                }
+
+                if (failureMessage != null)
+                {
+                    if (failureBuilder.length() != 0)
                     {
-                        // Do nothing here.  We handle not being able to find the input file below.
+                        failureBuilder.append("\n\n");
                     }
+                    failureBuilder.append(failureMessage);
                 }
+            }
+
+            if (failureBuilder.length() != 0)
+            {
+                fail(failureBuilder.toString());
+            }
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Compares a generated file against its known good counterpart.
+     *
+     * @param locationType  The type of the known good file location.  May not be <code>null</code>.
+     * @param inputLocation The location of the known good files.  May not be <code>null</code>.
+     * @param generatedFile The generated file.  May not be <code>null</code>.
+     *
+     * @return A message describing how the files differ, or <code>null</code> if they match.
+     *
+     * @throws Exception If either file cannot be read.
+     */
+    protected String compareFile(final InputLocationType locationType,
+                                 final String inputLocation,
+                                 final File generatedFile) throws Exception
+    {
+        final String knownGoodTextFileName = generatedFile.getName();
+        final String inputStreamLocation = inputLocation + "/" + knownGoodTextFileName;
+
+        // Most comparisons pass, so we first check whether the files are identical, from their digests if the manifest
+        // has a current one for the known good file or byte for byte if not.  That way a passing comparison never has
+        // to decode a character or split a line.
+        final File knownGoodFile = getDigestManifest() == null ? null : locateKnownGoodFile(locationType, inputStreamLocation);
+        final byte[] generatedDigest = getGeneratedFileDigests().get(generatedFile);
+        final byte[] knownGoodDigest = knownGoodFile == null || generatedDigest == null || !knownGoodFile.isFile() ?
+                                       null : getDigestManifest().getDigest(knownGoodFile);
+        if (knownGoodDigest != null)
+        {
+            if (MessageDigest.isEqual(knownGoodDigest, generatedDigest))
+            {
+                return null;
+            }
+        }
+        else if (contentsIdentical(locationType, inputStreamLocation, generatedFile))
+        {
+            if (knownGoodFile != null && generatedDigest != null)
+            {
+                getDigestManifest().putDigest(knownGoodFile, generatedDigest);
+            }
+            return null;
+        }
+
+        InputStream knownGoodInputStream = null;
+        InputStream generatedInputStream = null;
+        try
+        {
+            knownGoodInputStream = openKnownGoodFile(locationType, inputStreamLocation);
+            if (knownGoodInputStream == null)
+            {
+                // There's no input file.  We create a dummy one for comparison purposes.  This lets the
+                // developer see differences for all files rather than just bailing here.
+                knownGoodInputStream = new ByteArrayInputStream(
+                        String.format("Input file %s not found.", inputStreamLocation).getBytes());
+            }
+
+            generatedInputStream = openGeneratedFile(generatedFile);
+
+            // Both files are read a line at a time.  Neither is ever held in memory in its entirety.
+            final String failureMessage = describeDifferences(
+                    IOUtils.lineIterator(new BufferedReader(new InputStreamReader(knownGoodInputStream))),
+                    inputStreamLocation,
+                    locationType,
+                    IOUtils.lineIterator(new BufferedReader(new InputStreamReader(generatedInputStream))),
+                    generatedFile);
+
+            // The failure message refers to the generated file, so one held in memory has to be written out now.
+            if (failureMessage != null)
+            {
+                writeGeneratedContents(generatedFile);
+            }
+
+            return failureMessage;
+        }
+        finally
+        {
+            IOUtils.closeQuietly(knownGoodInputStream);
+            IOUtils.closeQuietly(generatedInputStream);
+        }
+    }
+
+
+    /**
+     * Opens a known good file for reading.
+     *
+     * @param locationType      The type of the known good file location.  May not be <code>null</code>.
+     * @param knownGoodLocation The location of the known good file.  May not be <code>null</code>.
+     *
+     * @return The stream, or <code>null</code> if there is no known good file.
+     */
+    protected InputStream openKnownGoodFile(final InputLocationType locationType, final String knownGoodLocation)
+    {
+        if (locationType == InputLocationType.CLASSPATH)
+        {
+            return getClass().getResourceAsStream(knownGoodLocation);
+        }
+
+        try
+        {
+            return new FileInputStream(knownGoodLocation);
+        }
+        catch (final FileNotFoundException e)
+        {
+            // There's no known good file.  Our caller decides what to do about that.
+            return null;
+        }
+    }
+
+
+    /**
+     * Determines whether the known good file has exactly the same bytes as the generated file.  Known good files on the
+     * file system, including classpath resources that resolve to <code>file:</code> URLs, are memory mapped along with
+     * the generated file, or compared with its contents if it is held in memory, in bulk.  Other classpath resources (in
+     * jars, for example) are streamed and compared with the generated file a buffer at a time.
+     *
+     * @param locationType      The type of the known good file location.  May not be <code>null</code>.
+     * @param knownGoodLocation The location of the known good file.  May not be <code>null</code>.
+     * @param generatedFile     The generated file.  May not be <code>null</code>.
+     *
+     * @return <code>true</code> if the known good file exists and has the same contents as the generated file.
+     *
+     * @throws IOException If either file cannot be read.
+     */
+    protected boolean contentsIdentical(final InputLocationType locationType,
+                                        final String knownGoodLocation,
+                                        final File generatedFile) throws IOException
+    {
+        final File knownGoodFile = locateKnownGoodFile(locationType, knownGoodLocation);
+        if (knownGoodFile != null)
+        {
+            final byte[] generatedContents = getGeneratedFileContents().get(generatedFile);
+            return knownGoodFile.isFile() && (generatedContents == null ?
+                                              contentsIdentical(knownGoodFile, generatedFile) :
+                                              contentsIdentical(knownGoodFile, generatedContents));
+        }
+
+        final InputStream knownGoodInputStream = getClass().getResourceAsStream(knownGoodLocation);
+        if (knownGoodInputStream == null)
+        {
+            return false;
+        }
 
-                if (knownGoodInputStream == null)
+        InputStream generatedInputStream = null;
+        try
+        {
+            generatedInputStream = openGeneratedFile(generatedFile);
+            return IOUtils.contentEquals(knownGoodInputStream, generatedInputStream);
+        }
+        finally
+        {
+            IOUtils.closeQuietly(knownGoodInputStream);
+            IOUtils.closeQuietly(generatedInputStream);
+        }
+    }
+
+
+    /**
+     * Compares two files by memory mapping them and comparing the mapped buffers.  Files are mapped a window at a time
+     * so files of any size can be compared without exhausting the address space.
+     *
+     * @param knownGoodFile The known good file.  May not be <code>null</code>.
+     * @param generatedFile The generated file.  May not be <code>null</code>.
+     *
+     * @return <code>true</code> if both files have exactly the same contents.
+     *
+     * @throws IOException If either file cannot be read.
+     */
+    protected boolean contentsIdentical(final File knownGoodFile, final File generatedFile) throws IOException
+    {
+        final long length = knownGoodFile.length();
+        if (length != generatedFile.length())
+        {
+            return false;
+        }
+
+        FileInputStream knownGoodInputStream = null;
+        FileInputStream generatedInputStream = null;
+        try
+        {
+            knownGoodInputStream = new FileInputStream(knownGoodFile);
+            generatedInputStream = new FileInputStream(generatedFile);
+            final FileChannel knownGoodChannel = knownGoodInputStream.getChannel();
+            final FileChannel generatedChannel = generatedInputStream.getChannel();
+
+            for (long position = 0; position < length; position += MAPPING_WINDOW_SIZE)
+            {
+                final long size = Math.min(MAPPING_WINDOW_SIZE, length - position);
+                final ByteBuffer knownGoodBuffer = knownGoodChannel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                final ByteBuffer generatedBuffer = generatedChannel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                if (!knownGoodBuffer.equals(generatedBuffer))
                 {
-                    // There's no input file.  We create a dummy one for comparison purposes.  This lets the
-                    // developer see differences for all files rather than just bailing here.
-                    knownGoodInputStream = new ByteArrayInputStream(
-                            String.format("Input file %s not found.", inputStreamLocation).getBytes());
+                    return false;
                 }
+            }
 
-                final Collection<String> knownGoodLines = IOUtils.readLines(knownGoodInputStream);
+            return true;
+        }
+        finally
+        {
+            IOUtils.closeQuietly(knownGoodInputStream);
+            IOUtils.closeQuietly(generatedInputStream);
+        }
+    }
 
-                generatedInputStream = new FileInputStream(generatedFile);
-                final Collection<String> generatedLines = IOUtils.readLines(generatedInputStream);
 
-                assertEqual(knownGoodLines,
-                            inputStreamLocation,
-                            locationType,
-                            generatedLines,
-                            generatedFile);
-            }
-            finally
+    /**
+     * Compares a file with contents held in memory by memory mapping the file a window at a time.
+     *
+     * @param knownGoodFile     The known good file.  May not be <code>null</code>.
+     * @param generatedContents The contents of the generated file.  May not be <code>null</code>.
+     *
+     * @return <code>true</code> if the file has exactly the given contents.
+     *
+     * @throws IOException If the file cannot be read.
+     */
+    protected boolean contentsIdentical(final File knownGoodFile, final byte[] generatedContents) throws IOException
+    {
+        final long length = knownGoodFile.length();
+        if (length != generatedContents.length)
+        {
+            return false;
+        }
+
+        FileInputStream knownGoodInputStream = null;
+        try
+        {
+            knownGoodInputStream = new FileInputStream(knownGoodFile);
+            final FileChannel knownGoodChannel = knownGoodInputStream.getChannel();
+
+            for (long position = 0; position < length; position += MAPPING_WINDOW_SIZE)
             {
-                IOUtils.closeQuietly(knownGoodInputStream);
-                IOUtils.closeQuietly(generatedInputStream);
+                final int size = (int)Math.min(MAPPING_WINDOW_SIZE, length - position);
+                final ByteBuffer knownGoodBuffer = knownGoodChannel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                if (!knownGoodBuffer.equals(ByteBuffer.wrap(generatedContents, (int)position, size)))
+                {
+                    return false;
+                }
             }
 
+            return true;
+        }
+        finally
+        {
+            IOUtils.closeQuietly(knownGoodInputStream);
+        }
+    }
+
+
+    /**
+     * Opens a generated file for reading, from memory if its contents are held there.
+     *
+     * @param generatedFile The generated file.  May not be <code>null</code>.
+     *
+     * @return The stream.  Will never be <code>null</code>.
+     *
+     * @throws IOException If the file cannot be opened.
+     */
+    protected InputStream openGeneratedFile(final File generatedFile) throws IOException
+    {
+        final byte[] generatedContents = getGeneratedFileContents().get(generatedFile);
+        return generatedContents == null ? new FileInputStream(generatedFile) : new ByteArrayInputStream(generatedContents);
+    }
+
+
+    /**
+     * Writes the contents of a generated file held in memory to the file.  Does nothing if the file's contents are not
+     * held in memory.
+     *
+     * @param generatedFile The generated file.  May not be <code>null</code>.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    protected void writeGeneratedContents(final File generatedFile) throws IOException
+    {
+        final byte[] generatedContents = getGeneratedFileContents().get(generatedFile);
+        if (generatedContents != null)
+        {
+            FileUtils.writeByteArrayToFile(generatedFile, generatedContents);
         }
     }
 
 
+    /**
+     * Returns the known good file as a {@link File} if it lives on the file system.
+     *
+     * @param locationType      The type of the known good file location.  May not be <code>null</code>.
+     * @param knownGoodLocation The location of the known good file.  May not be <code>null</code>.
+     *
+     * @return The known good file, or <code>null</code> if the known good file is a classpath resource that isn't a
+     *         plain file (for example a jar entry) or that doesn't exist.
+     */
+    protected File locateKnownGoodFile(final InputLocationType locationType, final String knownGoodLocation)
+    {
+        if (locationType == InputLocationType.FILE_SYSTEM)
+        {
+            return new File(knownGoodLocation);
+        }
+
+        final URL knownGoodUrl = getClass().getResource(knownGoodLocation);
+        return knownGoodUrl == null ? null : FileUtils.toFile(knownGoodUrl);
+    }
+
+
     protected void assertEqual(final Collection<String> knownGoodLines,
                                final String knownGoodPath,
                                final InputLocationType knownGoodLocationType,
                                final Collection<String> generatedLines,
                                final File generatedFile) throws Exception
     {
-        final String knownGoodFullPath;
-        if (knownGoodLocationType == InputLocationType.CLASSPATH)
-        {
-            knownGoodFullPath = knownGoodPath;
-        }
-        else
-        {
-            knownGoodFullPath = new File(knownGoodPath).getAbsolutePath();
-        }
+        assertEqual(knownGoodLines.iterator(), knownGoodPath, knownGoodLocationType, generatedLines.iterator(), generatedFile);
+    }
 
-        final StringBuilder errorBuilder = new StringBuilder();
 
-        if (knownGoodLines.size() != generatedLines.size())
+    /**
+     * Compares the known good lines with the generated lines and fails if they differ.  Lines are consumed one at a time
+     * so the iterators may be backed by files of any size.  Lines are only compared up to the first difference.  The
+     * remaining lines are then counted, but not compared.  If all differences are to be reported (see {@link
+     * DiffUnitComparison#reportAllDifferences()}) both sets of lines are read into memory instead and the failure
+     * message ends with a unified diff of the two.
+     */
+    protected void assertEqual(final Iterator<String> knownGoodLines,
+                               final String knownGoodPath,
+                               final InputLocationType knownGoodLocationType,
+                               final Iterator<String> generatedLines,
+                               final File generatedFile) throws Exception
+    {
+        final String failureMessage =
+                describeDifferences(knownGoodLines, knownGoodPath, knownGoodLocationType, generatedLines, generatedFile);
+        if (failureMessage != null)
         {
-            errorBuilder.append(String.format("The number of lines is different.  The known good file has %d lines.  " +
-                                              "The generated file has %d lines.  ",
-                                              knownGoodLines.size(), generatedLines.size()));
+            fail(failureMessage);
         }
+    }
+
+
+    /**
+     * Compares the known good lines with the generated lines in the same way as {@link #assertEqual(Iterator, String,
+     * InputLocationType, Iterator, File)} but returns the failure message rather than failing.
+     *
+     * @return A message describing how the lines differ, or <code>null</code> if they match.
+     */
+    protected String describeDifferences(final Iterator<String> knownGoodLines,
+                                         final String knownGoodPath,
+                                         final InputLocationType knownGoodLocationType,
+                                         final Iterator<String> generatedLines,
+                                         final File generatedFile)
+    {
+        final String knownGoodFullPath = determineKnownGoodFullPath(knownGoodLocationType, knownGoodPath);
+
+        // The diff needs every line of both files, so when all differences are reported we read them up front.
+        final List<String> knownGoodLineList = isReportAllDifferences() ? readRemaining(knownGoodLines) : null;
+        final List<String> generatedLineList = knownGoodLineList == null ? null : readRemaining(generatedLines);
+        final Iterator<String> knownGoodIterator = knownGoodLineList == null ? knownGoodLines : knownGoodLineList.iterator();
+        final Iterator<String> generatedIterator = generatedLineList == null ? generatedLines : generatedLineList.iterator();
 
-        int i = 1;
+        int knownGoodLineCount = 0;
+        int generatedLineCount = 0;
         String firstDifferenceMessage = null;
-        final Iterator<String> knownGoodIterator = knownGoodLines.iterator();
-        final Iterator<String> generatedIterator = generatedLines.iterator();
         while (firstDifferenceMessage == null && knownGoodIterator.hasNext() && generatedIterator.hasNext())
         {
             final String knownGoodLine = knownGoodIterator.next();
             final String generatedLine = generatedIterator.next();
+            knownGoodLineCount++;
+            generatedLineCount++;
             if (!knownGoodLine.equals(generatedLine))
             {
-                firstDifferenceMessage =
-                        String.format("First difference detected at line number %d, position %d.\n\n" +
-                                      "Known Good: %s\n" +
-                                      "Generated : %s\n",
-                                      i,
-                                      StringUtils.indexOfDifference(knownGoodLine,
-                                                                    generatedLine),
-                                      knownGoodLine,
-                                      generatedLine);
+                firstDifferenceMessage = describeFirstDifference(knownGoodLineCount, knownGoodLine, generatedLine);
             }
-            i++;
         }
+
+        // Count whatever is left over so we can report the line counts.
+        knownGoodLineCount += countRemaining(knownGoodIterator);
+        generatedLineCount += countRemaining(generatedIterator);
+
+        final StringBuilder errorBuilder = new StringBuilder();
+
+        if (knownGoodLineCount != generatedLineCount)
+        {
+            errorBuilder.append(String.format("The number of lines is different.  The known good file has %d lines.  " +
+                                              "The generated file has %d lines.  ",
+                                              knownGoodLineCount, generatedLineCount));
+        }
+
         if (firstDifferenceMessage != null)
         {
             errorBuilder.append(firstDifferenceMessage);
@@ -208,11 +777,189 @@ public abstract class AbstractFileComparer implements IFileComparer
 
         if (errorBuilder.length() != 0)
         {
-            fail(String.format("Generated file %s does not match known good file %s.  %s",
-                               generatedFile.getAbsolutePath(), knownGoodFullPath, errorBuilder));
+            if (knownGoodLineList != null)
+            {
+                errorBuilder.append('\n');
+                errorBuilder.append(new LineDiff(knownGoodLineList, generatedLineList).toUnifiedDiff(
+                        knownGoodFullPath, generatedFile.getAbsolutePath(), getContextLines(), getMaximumReportedDifferences()));
+            }
+
+            return describeMismatch(generatedFile, knownGoodFullPath, errorBuilder);
         }
+
+        return null;
+    }
+
+
+    protected String describeFirstDifference(final int lineNumber, final String knownGoodLine, final String generatedLine)
+    {
+        return String.format("First difference detected at line number %d, position %d.\n\n" +
+                             "Known Good: %s\n" +
+                             "Generated : %s\n",
+                             lineNumber,
+                             StringUtils.indexOfDifference(knownGoodLine,
+                                                           generatedLine),
+                             knownGoodLine,
+                             generatedLine);
+    }
+
+
+    protected String describeMismatch(final File generatedFile, final String knownGoodFullPath, final CharSequence details)
+    {
+        return String.format("Generated file %s does not match known good file %s.  %s",
+                             generatedFile.getAbsolutePath(), knownGoodFullPath, details);
+    }
+
+
+    protected String determineKnownGoodFullPath(final InputLocationType knownGoodLocationType, final String knownGoodPath)
+    {
+        return knownGoodLocationType == InputLocationType.CLASSPATH ? knownGoodPath : new File(knownGoodPath).getAbsolutePath();
+    }
+
+
+    protected List<String> readRemaining(final Iterator<String> lines)
+    {
+        final List<String> lineList = new ArrayList<String>();
+        while (lines.hasNext())
+        {
+            lineList.add(lines.next());
+        }
+
+        return lineList;
+    }
+
+
+    protected int countRemaining(final Iterator<String> lines)
+    {
+        int count = 0;
+        while (lines.hasNext())
+        {
+            lines.next();
+            count++;
+        }
+
+        return count;
+    }
+
+
+    protected DiffUnitComparison getComparisonAnnotation()
+    {
+        return getTestingContext().getTestClass().getAnnotation(DiffUnitComparison.class);
+    }
+
+
+    protected boolean isReportAllDifferences()
+    {
+        final DiffUnitComparison comparisonAnnotation = getComparisonAnnotation();
+        return comparisonAnnotation != null && comparisonAnnotation.reportAllDifferences();
+    }
+
+
+    protected int getMaximumReportedDifferences()
+    {
+        final DiffUnitComparison comparisonAnnotation = getComparisonAnnotation();
+        return comparisonAnnotation == null ? DEFAULT_MAXIMUM_REPORTED_DIFFERENCES : comparisonAnnotation.maximumReportedDifferences();
+    }
+
+
+    protected boolean isCompareInParallel()
+    {
+        final DiffUnitComparison comparisonAnnotation = getComparisonAnnotation();
+        return comparisonAnnotation != null && comparisonAnnotation.parallel();
+    }
+
+
+    protected int getComparisonThreads()
+    {
+        final DiffUnitComparison comparisonAnnotation = getComparisonAnnotation();
+        final int threads = comparisonAnnotation == null ? 0 : comparisonAnnotation.threads();
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+
+    protected boolean isDigestManifest()
+    {
+        final DiffUnitComparison comparisonAnnotation = getComparisonAnnotation();
+        return comparisonAnnotation != null && comparisonAnnotation.digestManifest();
+    }
+
+
+    protected int getContextLines()
+    {
+        final DiffUnitComparison comparisonAnnotation = getComparisonAnnotation();
+        return comparisonAnnotation == null ? DEFAULT_CONTEXT_LINES : comparisonAnnotation.contextLines();
     }
 
 
     protected abstract void fail(final String message) throws Exception;
+
+
+    /**
+     * Compares the lines of a generated file with those of its known good file as they are written, failing at the
+     * first line that differs or that the known good file doesn't have.  The final comparison of the whole file still
+     * reports everything else, such as a generated file that ends early.
+     */
+    protected class IncrementalComparison implements IIncrementalComparison
+    {
+        /**
+         * The reader of the known good file.  <code>null</code> if there is no known good file, in which case every line
+         * is accepted.
+         */
+        private final BufferedReader _knownGoodReader;
+        private final String _knownGoodFullPath;
+        private final File _generatedFile;
+        private int _lineNumber;
+
+
+        public IncrementalComparison(final InputStream knownGoodInputStream,
+                                     final String knownGoodFullPath,
+                                     final File generatedFile)
+        {
+            _knownGoodReader = knownGoodInputStream == null ? null : new BufferedReader(new InputStreamReader(knownGoodInputStream));
+            _knownGoodFullPath = knownGoodFullPath;
+            _generatedFile = generatedFile;
+        }
+
+
+        @Override
+        public void compareLines(final String text) throws Exception
+        {
+            if (_knownGoodReader == null)
+            {
+                return;
+            }
+
+            // The text was written with println, so it ends with a line separator that the reader needs to see.
+            final BufferedReader generatedReader = new BufferedReader(new StringReader(text + "\n"));
+            String generatedLine;
+            while ((generatedLine = generatedReader.readLine()) != null)
+            {
+                final String knownGoodLine = _knownGoodReader.readLine();
+                _lineNumber++;
+                if (knownGoodLine == null)
+                {
+                    fail(describeMismatch(_generatedFile, _knownGoodFullPath, String.format(
+                            "The number of lines is different.  The known good file has %d lines.  " +
+                            "The generated file has more.  ", _lineNumber - 1)));
+                    return;
+                }
+                if (!knownGoodLine.equals(generatedLine))
+                {
+                    fail(describeMismatch(_generatedFile, _knownGoodFullPath,
+                                          describeFirstDifference(_lineNumber, knownGoodLine, generatedLine)));
+                    return;
+                }
+            }
+        }
+
+
+        @Override
+        public void close() throws IOException
+        {
+            if (_knownGoodReader != null)
+            {
+                _knownGoodReader.close();
+            }
+        }
+    }
 }
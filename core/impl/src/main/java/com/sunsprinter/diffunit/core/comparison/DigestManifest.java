@@ -0,0 +1,258 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.comparison;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+
+/**
+ * The digests of the known good files in a directory, stored in that directory in a file named {@link
+ * #MANIFEST_FILE_NAME}.  Each line of the manifest holds a file's digest in hex, its size, its modification time and
+ * the time the entry was recorded, followed by its name.  An entry is stale, and ignored, once the known good file's
+ * size or modification time no longer match those recorded.<p/>
+ *
+ * A file can be changed again within the resolution of its modification time without the time changing.  An entry
+ * recorded within {@link #RACY_INTERVAL_MILLIS} of the file's modification time may therefore describe contents the
+ * file no longer has, so it isn't trusted.  The entry is recorded again, and trusted from then on, the next time the
+ * files are found identical.<p/>
+ *
+ * When the known good files are loaded from the class path the manifest is written to the directory they were loaded
+ * from, which for a Maven build is <code>target/test-classes</code> rather than the source tree.  It's lost, and
+ * rebuilt, whenever that directory is cleaned.<p/>
+ *
+ * Instances are safe for use by several comparison threads at once.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class DigestManifest
+{
+    /**
+     * The name of the manifest file in the known good directory.
+     */
+    public static final String MANIFEST_FILE_NAME = ".diffunit-digests";
+
+    /**
+     * How long after a file's modification time an entry must have been recorded to be trusted.  Covers file systems
+     * whose modification times have a resolution of up to two seconds.
+     */
+    public static final long RACY_INTERVAL_MILLIS = 2000;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final File _manifestFile;
+
+    /**
+     * The entries, keyed by file name and kept sorted so the manifest is written in the same order every time.
+     */
+    private final Map<String, Entry> _entries = new TreeMap<String, Entry>();
+
+    private boolean _modified;
+
+
+    public DigestManifest(final File directory)
+    {
+        _manifestFile = new File(directory, MANIFEST_FILE_NAME);
+    }
+
+
+    public File getManifestFile()
+    {
+        return _manifestFile;
+    }
+
+
+    /**
+     * Reads the manifest file, if there is one.  Lines that can't be parsed are ignored.
+     *
+     * @throws IOException If the manifest file exists but can't be read.
+     */
+    public synchronized void load() throws IOException
+    {
+        _entries.clear();
+        _modified = false;
+        if (!getManifestFile().isFile())
+        {
+            return;
+        }
+
+        for (final String line : FileUtils.readLines(getManifestFile(), "UTF-8"))
+        {
+            final String[] fields = StringUtils.split(line, " ", 5);
+            if (fields.length == 5 && !line.startsWith("#"))
+            {
+                try
+                {
+                    _entries.put(fields[4], new Entry(fromHex(fields[0]),
+                                                      Long.parseLong(fields[1]),
+                                                      Long.parseLong(fields[2]),
+                                                      Long.parseLong(fields[3])));
+                }
+                catch (final NumberFormatException e)
+                {
+                    // Do nothing here.  A damaged entry is treated like a missing one.
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Writes the manifest file if any entries have been recorded since it was loaded.
+     *
+     * @throws IOException If the manifest file can't be written.
+     */
+    public synchronized void store() throws IOException
+    {
+        if (!_modified)
+        {
+            return;
+        }
+
+        final List<String> lines = new ArrayList<String>(_entries.size() + 1);
+        lines.add("# DiffUnit known good file digests (" + IFileComparer.DIGEST_ALGORITHM + ").  Safe to delete.");
+        for (final Map.Entry<String, Entry> entry : _entries.entrySet())
+        {
+            lines.add(toHex(entry.getValue().getDigest()) + " " + entry.getValue().getSize() + " " +
+                      entry.getValue().getLastModified() + " " + entry.getValue().getRecordedAt() + " " + entry.getKey());
+        }
+        FileUtils.writeLines(getManifestFile(), "UTF-8", lines, "\n");
+        _modified = false;
+    }
+
+
+    /**
+     * @param knownGoodFile A known good file in the manifest's directory.  May not be <code>null</code>.
+     *
+     * @return The recorded digest of the file, or <code>null</code> if there is no entry for the file or the entry is
+     *         stale or was recorded too soon after the file was modified.
+     */
+    public synchronized byte[] getDigest(final File knownGoodFile)
+    {
+        final Entry entry = _entries.get(knownGoodFile.getName());
+        if (entry == null ||
+            entry.getSize() != knownGoodFile.length() ||
+            entry.getLastModified() != knownGoodFile.lastModified() ||
+            entry.getRecordedAt() - entry.getLastModified() < RACY_INTERVAL_MILLIS)
+        {
+            return null;
+        }
+
+        return entry.getDigest();
+    }
+
+
+    /**
+     * Records the digest of a known good file along with its current size and modification time and the current time.
+     *
+     * @param knownGoodFile A known good file in the manifest's directory.  May not be <code>null</code>.
+     * @param digest        The digest of the file's contents.  May not be <code>null</code>.
+     */
+    public synchronized void putDigest(final File knownGoodFile, final byte[] digest)
+    {
+        _entries.put(knownGoodFile.getName(), new Entry(digest, knownGoodFile.length(), knownGoodFile.lastModified(),
+                                                          System.currentTimeMillis()));
+        _modified = true;
+    }
+
+
+    protected static String toHex(final byte[] bytes)
+    {
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            chars[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            chars[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+
+        return new String(chars);
+    }
+
+
+    protected static byte[] fromHex(final String hex) throws NumberFormatException
+    {
+        if (hex.length() % 2 != 0)
+        {
+            throw new NumberFormatException("Odd number of hex digits in " + hex + ".");
+        }
+
+        final byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            final int high = Character.digit(hex.charAt(2 * i), 16);
+            final int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0)
+            {
+                throw new NumberFormatException("Invalid hex digit in " + hex + ".");
+            }
+            bytes[i] = (byte)((high << 4) | low);
+        }
+
+        return bytes;
+    }
+
+
+    protected static class Entry
+    {
+        private final byte[] _digest;
+        private final long _size;
+        private final long _lastModified;
+        private final long _recordedAt;
+
+
+        public Entry(final byte[] digest, final long size, final long lastModified, final long recordedAt)
+        {
+            _digest = digest;
+            _size = size;
+            _lastModified = lastModified;
+            _recordedAt = recordedAt;
+        }
+
+
+        public byte[] getDigest()
+        {
+            return _digest;
+        }
+
+
+        public long getSize()
+        {
+            return _size;
+        }
+
+
+        public long getLastModified()
+        {
+            return _lastModified;
+        }
+
+
+        public long getRecordedAt()
+        {
+            return _recordedAt;
+        }
+    }
+}
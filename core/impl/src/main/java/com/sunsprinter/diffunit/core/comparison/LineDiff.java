@@ -0,0 +1,512 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.comparison;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Computes the differences between two sequences of lines and formats them as a unified diff.<p/>
+ *
+ * The differences are found with Myers' O(ND) algorithm using its linear space refinement: each step finds the middle
+ * snake of the current region by running the search forwards and backwards at the same time, then divides the region
+ * there.  Memory use is proportional to the number of lines, never to the product of the line counts.  As in GNU diff,
+ * the search gives up on finding the optimal split of a region once it becomes too expensive and splits at the furthest
+ * point reached instead, which keeps pathological inputs (large files with nothing in common) fast at the cost of a
+ * slightly longer diff.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class LineDiff
+{
+    /**
+     * The minimum number of search steps made in a region before settling for a split that may not be optimal.
+     */
+    private static final int MINIMUM_SEARCH_COST = 1024;
+
+    private final List<String> _leftLines;
+    private final List<String> _rightLines;
+
+    /**
+     * Each line is replaced by a number that identifies its contents so that lines can be compared cheaply.
+     */
+    private final int[] _left;
+    private final int[] _right;
+
+    /**
+     * Flags the lines removed from the left sequence and the lines added by the right sequence.
+     */
+    private final boolean[] _removed;
+    private final boolean[] _added;
+
+    /**
+     * The furthest reaching forward and backward paths, indexed by diagonal.
+     */
+    private final int[] _forward;
+    private final int[] _backward;
+    private final int _diagonalOffset;
+    private final int _searchCostLimit;
+
+
+    public LineDiff(final List<String> leftLines, final List<String> rightLines)
+    {
+        _leftLines = leftLines;
+        _rightLines = rightLines;
+
+        final Map<String, Integer> lineIds = new HashMap<String, Integer>();
+        _left = identify(leftLines, lineIds);
+        _right = identify(rightLines, lineIds);
+
+        _removed = new boolean[_left.length];
+        _added = new boolean[_right.length];
+
+        final int diagonals = _left.length + _right.length + 3;
+        _forward = new int[diagonals];
+        _backward = new int[diagonals];
+        _diagonalOffset = _right.length + 1;
+
+        int searchCostLimit = 1;
+        for (int remaining = diagonals; remaining != 0; remaining >>= 2)
+        {
+            searchCostLimit <<= 1;
+        }
+        _searchCostLimit = Math.max(MINIMUM_SEARCH_COST, searchCostLimit);
+
+        compare();
+    }
+
+
+    /**
+     * @return <code>true</code> if the two sequences of lines are the same.
+     */
+    public boolean isEmpty()
+    {
+        for (final boolean removed : _removed)
+        {
+            if (removed)
+            {
+                return false;
+            }
+        }
+        for (final boolean added : _added)
+        {
+            if (added)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Formats the differences as a unified diff.
+     *
+     * @param leftName     The name of the left file, shown in the <code>---</code> header.  May not be
+     *                     <code>null</code>.
+     * @param rightName    The name of the right file, shown in the <code>+++</code> header.  May not be
+     *                     <code>null</code>.
+     * @param contextLines The number of unchanged lines shown around each change.
+     * @param maximumHunks The maximum number of hunks to include.  Further hunks are counted but not shown.
+     *
+     * @return The unified diff.  Empty if there are no differences.  Will never be <code>null</code>.
+     */
+    public String toUnifiedDiff(final String leftName,
+                                final String rightName,
+                                final int contextLines,
+                                final int maximumHunks)
+    {
+        final List<int[]> changes = findChanges();
+        if (changes.isEmpty())
+        {
+            return "";
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append("--- ").append(leftName).append('\n');
+        sb.append("+++ ").append(rightName).append('\n');
+
+        int hunkCount = 0;
+        int first = 0;
+        while (first < changes.size())
+        {
+            // Changes separated by no more than twice the context belong to the same hunk.
+            int last = first;
+            while (last + 1 < changes.size() && changes.get(last + 1)[0] - changes.get(last)[1] <= 2 * contextLines)
+            {
+                last++;
+            }
+
+            hunkCount++;
+            if (hunkCount <= maximumHunks)
+            {
+                appendHunk(sb, changes.subList(first, last + 1), contextLines);
+            }
+
+            first = last + 1;
+        }
+
+        if (hunkCount > maximumHunks)
+        {
+            sb.append(String.format("%d further hunks not shown.\n", hunkCount - maximumHunks));
+        }
+
+        return sb.toString();
+    }
+
+
+    /**
+     * Groups the changed lines into blocks.  Each block is an array of the left start, left end, right start and right
+     * end indexes (ends exclusive) of a run of removed and added lines.  Lines between blocks are the same on both
+     * sides.
+     */
+    protected List<int[]> findChanges()
+    {
+        final List<int[]> changes = new ArrayList<int[]>();
+
+        int left = 0;
+        int right = 0;
+        while (left < _left.length || right < _right.length)
+        {
+            if ((left < _left.length && _removed[left]) || (right < _right.length && _added[right]))
+            {
+                final int leftStart = left;
+                final int rightStart = right;
+                while (left < _left.length && _removed[left])
+                {
+                    left++;
+                }
+                while (right < _right.length && _added[right])
+                {
+                    right++;
+                }
+                changes.add(new int[]{leftStart, left, rightStart, right});
+            }
+            else
+            {
+                left++;
+                right++;
+            }
+        }
+
+        return changes;
+    }
+
+
+    protected void appendHunk(final StringBuilder sb, final List<int[]> changes, final int contextLines)
+    {
+        final int[] firstChange = changes.get(0);
+        final int[] lastChange = changes.get(changes.size() - 1);
+
+        final int leftStart = Math.max(0, firstChange[0] - contextLines);
+        final int rightStart = firstChange[2] - (firstChange[0] - leftStart);
+        final int leftEnd = Math.min(_left.length, lastChange[1] + contextLines);
+        final int rightEnd = lastChange[3] + (leftEnd - lastChange[1]);
+
+        sb.append("@@ -").append(formatRange(leftStart, leftEnd));
+        sb.append(" +").append(formatRange(rightStart, rightEnd));
+        sb.append(" @@\n");
+
+        int left = leftStart;
+        for (final int[] change : changes)
+        {
+            while (left < change[0])
+            {
+                sb.append(' ').append(_leftLines.get(left++)).append('\n');
+            }
+            for (int i = change[0]; i < change[1]; i++)
+            {
+                sb.append('-').append(_leftLines.get(i)).append('\n');
+            }
+            for (int i = change[2]; i < change[3]; i++)
+            {
+                sb.append('+').append(_rightLines.get(i)).append('\n');
+            }
+            left = change[1];
+        }
+        while (left < leftEnd)
+        {
+            sb.append(' ').append(_leftLines.get(left++)).append('\n');
+        }
+    }
+
+
+    /**
+     * Formats a range the way GNU diff does: the one-based start line, followed by the line count unless it is one.  An
+     * empty range is shown as starting at the line before it.
+     */
+    protected String formatRange(final int start, final int end)
+    {
+        final int count = end - start;
+        if (count == 1)
+        {
+            return String.valueOf(start + 1);
+        }
+
+        return String.format("%d,%d", count == 0 ? start : start + 1, count);
+    }
+
+
+    private static int[] identify(final List<String> lines, final Map<String, Integer> lineIds)
+    {
+        final int[] ids = new int[lines.size()];
+
+        int i = 0;
+        for (final String line : lines)
+        {
+            Integer id = lineIds.get(line);
+            if (id == null)
+            {
+                id = lineIds.size();
+                lineIds.put(line, id);
+            }
+            ids[i++] = id;
+        }
+
+        return ids;
+    }
+
+
+    /**
+     * Marks the removed and added lines.  Regions are processed from an explicit stack rather than by recursion so that
+     * very long, very different files can't overflow the call stack.
+     */
+    private void compare()
+    {
+        final LinkedList<int[]> regions = new LinkedList<int[]>();
+        regions.add(new int[]{0, _left.length, 0, _right.length});
+
+        while (!regions.isEmpty())
+        {
+            final int[] region = regions.removeFirst();
+            int leftStart = region[0];
+            int leftEnd = region[1];
+            int rightStart = region[2];
+            int rightEnd = region[3];
+
+            // Lines common to the start and end of the region are never part of the difference.
+            while (leftStart < leftEnd && rightStart < rightEnd && _left[leftStart] == _right[rightStart])
+            {
+                leftStart++;
+                rightStart++;
+            }
+            while (leftStart < leftEnd && rightStart < rightEnd && _left[leftEnd - 1] == _right[rightEnd - 1])
+            {
+                leftEnd--;
+                rightEnd--;
+            }
+
+            if (leftStart == leftEnd)
+            {
+                for (int i = rightStart; i < rightEnd; i++)
+                {
+                    _added[i] = true;
+                }
+            }
+            else if (rightStart == rightEnd)
+            {
+                for (int i = leftStart; i < leftEnd; i++)
+                {
+                    _removed[i] = true;
+                }
+            }
+            else
+            {
+                final int[] split = findSplit(leftStart, leftEnd, rightStart, rightEnd);
+                regions.addFirst(new int[]{split[0], leftEnd, split[1], rightEnd});
+                regions.addFirst(new int[]{leftStart, split[0], rightStart, split[1]});
+            }
+        }
+    }
+
+
+    /**
+     * Finds the point at which to divide a region: the middle snake of the shortest edit script or, when that is too
+     * expensive to find, the furthest point reached by either search.  The region must be non-empty on both sides and
+     * must not start or end with matching lines.
+     *
+     * @return The left and right indexes of the split point.
+     */
+    private int[] findSplit(final int leftStart, final int leftEnd, final int rightStart, final int rightEnd)
+    {
+        final int[] forward = _forward;
+        final int[] backward = _backward;
+        final int offset = _diagonalOffset;
+
+        final int minimumDiagonal = leftStart - rightEnd;
+        final int maximumDiagonal = leftEnd - rightStart;
+        final int forwardMiddle = leftStart - rightStart;
+        final int backwardMiddle = leftEnd - rightEnd;
+        final boolean odd = ((forwardMiddle - backwardMiddle) & 1) != 0;
+
+        int forwardMinimum = forwardMiddle;
+        int forwardMaximum = forwardMiddle;
+        int backwardMinimum = backwardMiddle;
+        int backwardMaximum = backwardMiddle;
+
+        forward[forwardMiddle + offset] = leftStart;
+        backward[backwardMiddle + offset] = leftEnd;
+
+        for (int cost = 1; ; cost++)
+        {
+            // Extend the forward search by one edit.
+            if (forwardMinimum > minimumDiagonal)
+            {
+                forward[--forwardMinimum - 1 + offset] = -1;
+            }
+            else
+            {
+                ++forwardMinimum;
+            }
+            if (forwardMaximum < maximumDiagonal)
+            {
+                forward[++forwardMaximum + 1 + offset] = -1;
+            }
+            else
+            {
+                --forwardMaximum;
+            }
+            for (int diagonal = forwardMaximum; diagonal >= forwardMinimum; diagonal -= 2)
+            {
+                final int below = forward[diagonal - 1 + offset];
+                final int above = forward[diagonal + 1 + offset];
+                int left = below >= above ? below + 1 : above;
+                int right = left - diagonal;
+                while (left < leftEnd && right < rightEnd && _left[left] == _right[right])
+                {
+                    left++;
+                    right++;
+                }
+                forward[diagonal + offset] = left;
+                if (odd && backwardMinimum <= diagonal && diagonal <= backwardMaximum &&
+                    backward[diagonal + offset] <= left)
+                {
+                    return new int[]{left, right};
+                }
+            }
+
+            // Extend the backward search by one edit.
+            if (backwardMinimum > minimumDiagonal)
+            {
+                backward[--backwardMinimum - 1 + offset] = Integer.MAX_VALUE;
+            }
+            else
+            {
+                ++backwardMinimum;
+            }
+            if (backwardMaximum < maximumDiagonal)
+            {
+                backward[++backwardMaximum + 1 + offset] = Integer.MAX_VALUE;
+            }
+            else
+            {
+                --backwardMaximum;
+            }
+            for (int diagonal = backwardMaximum; diagonal >= backwardMinimum; diagonal -= 2)
+            {
+                final int below = backward[diagonal - 1 + offset];
+                final int above = backward[diagonal + 1 + offset];
+                int left = below < above ? below : above - 1;
+                int right = left - diagonal;
+                while (leftStart < left && rightStart < right && _left[left - 1] == _right[right - 1])
+                {
+                    left--;
+                    right--;
+                }
+                backward[diagonal + offset] = left;
+                if (!odd && forwardMinimum <= diagonal && diagonal <= forwardMaximum &&
+                    left <= forward[diagonal + offset])
+                {
+                    return new int[]{left, right};
+                }
+            }
+
+            if (cost >= _searchCostLimit)
+            {
+                return findFurthestPoint(leftStart, leftEnd, rightStart, rightEnd,
+                                         forwardMinimum, forwardMaximum, backwardMinimum, backwardMaximum);
+            }
+        }
+    }
+
+
+    /**
+     * Gives up on the optimal split and picks whichever of the forward and backward searches has made the most
+     * progress.
+     */
+    private int[] findFurthestPoint(final int leftStart,
+                                    final int leftEnd,
+                                    final int rightStart,
+                                    final int rightEnd,
+                                    final int forwardMinimum,
+                                    final int forwardMaximum,
+                                    final int backwardMinimum,
+                                    final int backwardMaximum)
+    {
+        final int offset = _diagonalOffset;
+
+        int forwardBestSum = -1;
+        int forwardBestLeft = leftStart;
+        for (int diagonal = forwardMaximum; diagonal >= forwardMinimum; diagonal -= 2)
+        {
+            int left = Math.min(_forward[diagonal + offset], leftEnd);
+            int right = left - diagonal;
+            if (rightEnd < right)
+            {
+                left = rightEnd + diagonal;
+                right = rightEnd;
+            }
+            if (forwardBestSum < left + right)
+            {
+                forwardBestSum = left + right;
+                forwardBestLeft = left;
+            }
+        }
+
+        int backwardBestSum = Integer.MAX_VALUE;
+        int backwardBestLeft = leftEnd;
+        for (int diagonal = backwardMaximum; diagonal >= backwardMinimum; diagonal -= 2)
+        {
+            int left = Math.max(leftStart, _backward[diagonal + offset]);
+            int right = left - diagonal;
+            if (right < rightStart)
+            {
+                left = rightStart + diagonal;
+                right = rightStart;
+            }
+            if (left + right < backwardBestSum)
+            {
+                backwardBestSum = left + right;
+                backwardBestLeft = left;
+            }
+        }
+
+        if ((leftEnd + rightEnd) - backwardBestSum < forwardBestSum - (leftStart + rightStart))
+        {
+            return new int[]{forwardBestLeft, forwardBestSum - forwardBestLeft};
+        }
+
+        return new int[]{backwardBestLeft, backwardBestSum - backwardBestLeft};
+    }
+}
@@ -41,6 +41,7 @@ public class TestingContext implements ITestingContext
     private Object _test;
     private IObjectInstanceTracker _instanceTracker;
     private IRootTranslator _rootTranslator;
+    private IRootTranslator _undecoratedRootTranslator;
     private Collection<Object> _outputObjects;
     private IOutputManager _outputManager;
     private IFileComparer _fileComparer;
@@ -140,6 +141,22 @@ public class TestingContext implements ITestingContext
     }
 
 
+    /**
+     * Returns the undecorated root translator.  If none has been set, the root translator is returned instead.
+     */
+    @Override
+    public IRootTranslator getUndecoratedRootTranslator()
+    {
+        return _undecoratedRootTranslator == null ? getRootTranslator() : _undecoratedRootTranslator;
+    }
+
+
+    public void setUndecoratedRootTranslator(final IRootTranslator undecoratedRootTranslator)
+    {
+        _undecoratedRootTranslator = undecoratedRootTranslator;
+    }
+
+
     public IFileComparer getFileComparer()
     {
         return _fileComparer;
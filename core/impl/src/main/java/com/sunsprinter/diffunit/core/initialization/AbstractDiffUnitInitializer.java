@@ -21,10 +21,8 @@ import java.io.File;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
-
-import org.apache.commons.io.FileUtils;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import com.sunsprinter.diffunit.core.comparison.IFileComparer;
 import com.sunsprinter.diffunit.core.context.ITestingContext;
@@ -32,17 +30,27 @@ import com.sunsprinter.diffunit.core.context.TestingContext;
 import com.sunsprinter.diffunit.core.context.TestingContextHolder;
 import com.sunsprinter.diffunit.core.injection.IInjector;
 import com.sunsprinter.diffunit.core.injection.Injector;
+import com.sunsprinter.diffunit.core.instancetracking.DiffUnitInstanceTracking;
 import com.sunsprinter.diffunit.core.instancetracking.IObjectIdentifier;
 import com.sunsprinter.diffunit.core.instancetracking.IObjectInstanceTracker;
+import com.sunsprinter.diffunit.core.instancetracking.InstanceTrackingMode;
 import com.sunsprinter.diffunit.core.instancetracking.ObjectInstanceTracker;
+import com.sunsprinter.diffunit.core.instancetracking.WeakObjectInstanceTracker;
 import com.sunsprinter.diffunit.core.output.DiffUnitOutputLocation;
+import com.sunsprinter.diffunit.core.output.DiffUnitOutputMode;
 import com.sunsprinter.diffunit.core.output.IOutputManager;
+import com.sunsprinter.diffunit.core.output.OutputDirectoryCleaner;
 import com.sunsprinter.diffunit.core.output.OutputManager;
+import com.sunsprinter.diffunit.core.output.OutputMode;
+import com.sunsprinter.diffunit.core.translators.ArrayTranslator;
+import com.sunsprinter.diffunit.core.translators.ByteArrayTranslator;
 import com.sunsprinter.diffunit.core.translators.CollectionTranslator;
+import com.sunsprinter.diffunit.core.translators.DiffUnitTranslationLimits;
 import com.sunsprinter.diffunit.core.translators.IRootTranslator;
 import com.sunsprinter.diffunit.core.translators.ITypeBindingTranslator;
 import com.sunsprinter.diffunit.core.translators.IteratorTranslator;
 import com.sunsprinter.diffunit.core.translators.MapTranslator;
+import com.sunsprinter.diffunit.core.translators.RegExReplacementRootTranslatorDecorator;
 import com.sunsprinter.diffunit.core.translators.RegExReplacementTranslatorDecorator;
 import com.sunsprinter.diffunit.core.translators.RootTranslator;
 import com.sunsprinter.diffunit.core.translators.StackTraceReplacementPair;
@@ -81,28 +89,26 @@ public abstract class AbstractDiffUnitInitializer
         getTestingContext().setOutputObjects(createOutputObjectsCollection());
         getTestingContext().setTestName(testName);
         getTestingContext().setTest(test);
-        getTestingContext().setInstanceTracker(new ObjectInstanceTracker());
+        getTestingContext().setInstanceTracker(createInstanceTracker());
 
         final IRootTranslator rootTranslator = createRootTranslator();
         bindStandardTypesToTranslators(rootTranslator);
 
-        final RegExReplacementTranslatorDecorator<IRootTranslator> regExDecorator = createRegExReplacementTranslatorDecorator(rootTranslator);
-        regExDecorator.setReplacementPairs(getTestingContext().getRegExReplacementPairs());
-        getTestingContext().setRootTranslator(regExDecorator.getProxy());
+        getTestingContext().setRootTranslator(decorateRootTranslator(rootTranslator));
+        getTestingContext().setUndecoratedRootTranslator(rootTranslator);
 
         installRegExReplacementPairs();
 
         getTestingContext().setOutputManager(createOutputManager());
         getTestingContext().setFileComparer(createFileComparer());
 
-        TestingContextHolder.CONTEXT = getTestingContext();
+        TestingContextHolder.set(getTestingContext());
 
+        // Output from a previous run is moved aside and deleted in the background, so the test never waits for it.
         getTestingContext().setOutputDirectory(determineTestOutputDirectory());
-        if (getTestingContext().getOutputDirectory().exists())
-        {
-            FileUtils.deleteDirectory(getTestingContext().getOutputDirectory());
-        }
-        if (!getTestingContext().getOutputDirectory().mkdirs())
+        createOutputDirectoryCleaner().discard(getTestingContext().getOutputDirectory());
+        // Files kept in memory are only written out if they fail comparison, which creates the directory as needed.
+        if (determineOutputMode() != OutputMode.IN_MEMORY && !getTestingContext().getOutputDirectory().mkdirs())
         {
             throw new DiffUnitInitializationException(
                     String.format("Could not create output directory %s.",
@@ -121,15 +127,54 @@ public abstract class AbstractDiffUnitInitializer
     }
 
 
+    /**
+     * Decorates the root translator so that the testing context's regular expression replacements are applied to
+     * every translation.
+     *
+     * @param rootTranslator The root translator.  Will never be <code>null</code>.
+     *
+     * @return The decorated root translator.  Will never be <code>null</code>.
+     */
+    protected IRootTranslator decorateRootTranslator(final IRootTranslator rootTranslator)
+    {
+        final RegExReplacementTranslatorDecorator<IRootTranslator> regExDecorator = createRegExReplacementTranslatorDecorator(rootTranslator);
+        regExDecorator.setReplacementPairs(getTestingContext().getRegExReplacementPairs());
+        return regExDecorator.getProxy();
+    }
+
+
+    protected RegExReplacementRootTranslatorDecorator createRegExReplacementRootTranslatorDecorator(final IRootTranslator rootTranslator)
+    {
+        return new RegExReplacementRootTranslatorDecorator(rootTranslator);
+    }
+
+
+    /**
+     * Creates the decorator whose proxy becomes the root translator.  By default this is the decorator created by
+     * {@link #createRegExReplacementRootTranslatorDecorator(IRootTranslator)}, which is its own proxy.
+     *
+     * @deprecated Override {@link #createRegExReplacementRootTranslatorDecorator(IRootTranslator)} instead.
+     */
+    @Deprecated
     protected RegExReplacementTranslatorDecorator<IRootTranslator> createRegExReplacementTranslatorDecorator(final IRootTranslator rootTranslator)
     {
-        return new RegExReplacementTranslatorDecorator<IRootTranslator>(rootTranslator);
+        return createRegExReplacementRootTranslatorDecorator(rootTranslator);
     }
 
 
+    /**
+     * Creates the collection the test's output objects are added to.  Threads started by the test share the test's
+     * context, so the collection must accept additions from several threads at once.
+     */
     protected Collection<Object> createOutputObjectsCollection()
     {
-        return new LinkedList<Object>();
+        return new ConcurrentLinkedQueue<Object>();
+    }
+
+
+    protected OutputDirectoryCleaner createOutputDirectoryCleaner()
+    {
+        return new OutputDirectoryCleaner();
     }
 
 
@@ -139,9 +184,38 @@ public abstract class AbstractDiffUnitInitializer
     }
 
 
+    protected IObjectInstanceTracker createInstanceTracker()
+    {
+        return determineInstanceTrackingMode() == InstanceTrackingMode.WEAK ? new WeakObjectInstanceTracker() : new ObjectInstanceTracker();
+    }
+
+
+    protected InstanceTrackingMode determineInstanceTrackingMode()
+    {
+        final DiffUnitInstanceTracking classInstanceTrackingAnnotation =
+                getTestingContext().getTestClass().getAnnotation(DiffUnitInstanceTracking.class);
+        return classInstanceTrackingAnnotation == null ? InstanceTrackingMode.STRONG : classInstanceTrackingAnnotation.mode();
+    }
+
+
     protected IRootTranslator createRootTranslator()
     {
-        return new RootTranslator();
+        final RootTranslator rootTranslator = new RootTranslator();
+
+        final DiffUnitTranslationLimits translationLimits = determineTranslationLimits();
+        if (translationLimits != null)
+        {
+            rootTranslator.limitDepthTo(translationLimits.maximumDepth());
+            rootTranslator.limitNodesTo(translationLimits.maximumNodes());
+        }
+
+        return rootTranslator;
+    }
+
+
+    protected DiffUnitTranslationLimits determineTranslationLimits()
+    {
+        return getTestingContext().getTestClass().getAnnotation(DiffUnitTranslationLimits.class);
     }
 
 
@@ -153,6 +227,15 @@ public abstract class AbstractDiffUnitInitializer
         translator.bind(new ToPrettyXmlTranslator<MapTranslator.KeyValuePair>(), MapTranslator.KeyValuePair.class);
         translator.bind(new ToStringTranslator<Object>(), IObjectIdentifier.class);
         translator.bind(new ThrowableMessageTranslator<Throwable>(), Throwable.class);
+        translator.bind(new ArrayTranslator(),
+                        boolean[].class,
+                        char[].class,
+                        short[].class,
+                        int[].class,
+                        long[].class,
+                        float[].class,
+                        double[].class);
+        translator.bind(new ByteArrayTranslator(), byte[].class);
     }
 
 
@@ -188,14 +271,52 @@ public abstract class AbstractDiffUnitInitializer
     }
 
 
-    protected IOutputManager createOutputManager()
+    protected IOutputManager createOutputManager() throws DiffUnitInitializationException
     {
         final OutputManager outputManager = new OutputManager();
         outputManager.setTestingContext(getTestingContext());
+        outputManager.setOutputMode(determineOutputMode());
+        outputManager.setFailFast(determineFailFast());
         return outputManager;
     }
 
 
+    protected OutputMode determineOutputMode()
+    {
+        final DiffUnitOutputMode classOutputModeAnnotation =
+                getTestingContext().getTestClass().getAnnotation(DiffUnitOutputMode.class);
+        final OutputMode outputMode = classOutputModeAnnotation == null ? OutputMode.BUFFERED : classOutputModeAnnotation.mode();
+
+        // Files the developer has asked to keep have to be written to disk, so in memory mode becomes buffered mode.
+        return outputMode == OutputMode.IN_MEMORY && Boolean.getBoolean(IOutputManager.KEEP_OUTPUT_PROPERTY) ?
+               OutputMode.BUFFERED : outputMode;
+    }
+
+
+    protected boolean determineFailFast() throws DiffUnitInitializationException
+    {
+        final DiffUnitOutputMode classOutputModeAnnotation =
+                getTestingContext().getTestClass().getAnnotation(DiffUnitOutputMode.class);
+        if (classOutputModeAnnotation == null || !classOutputModeAnnotation.failFast())
+        {
+            return false;
+        }
+
+        // Only streamed output exists as it is written, so there's nothing to compare early in any other mode.
+        if (classOutputModeAnnotation.mode() != OutputMode.STREAMING)
+        {
+            throw new DiffUnitInitializationException(
+                    String.format("Test class %s asks for fail fast comparison in %s output mode.  Fail fast comparison " +
+                                  "requires %s output mode.",
+                                  getTestingContext().getTestClass().getName(),
+                                  classOutputModeAnnotation.mode(),
+                                  OutputMode.STREAMING));
+        }
+
+        return true;
+    }
+
+
     protected abstract IFileComparer createFileComparer();
 
 
@@ -78,6 +78,6 @@ public class ObjectIdentifier implements IObjectIdentifier
     @Override
     public boolean equals(final Object obj)
     {
-        return obj instanceof IObjectIdentifier && hashCode() == obj.hashCode();
+        return obj instanceof IObjectIdentifier && ((IObjectIdentifier)obj).getObject() == getObject();
     }
 }
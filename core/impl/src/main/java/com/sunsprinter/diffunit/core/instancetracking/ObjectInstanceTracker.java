@@ -17,12 +17,20 @@
 package com.sunsprinter.diffunit.core.instancetracking;
 
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
- * ObjectInstanceTracker
+ * Assigns each object it is presented with an identifier made up of the object's class and an instance number.  The
+ * first object of a given class presented is number 1, the next number 2 and so on.<p/>
+ *
+ * Objects are told apart by identity, never by {@link Object#equals(Object)} or identity hash code, so two distinct
+ * objects never share an identifier.  Objects already known are looked up without locking.  Assigning a number to a new
+ * object locks only the counter for the object's class, so threads translating objects of different classes never
+ * contend.  Numbers within a class are consecutive and each object is numbered exactly once however many threads
+ * present it, so output is deterministic whenever each class's objects are first presented in a deterministic order.
  *
  * @author Kevan Dunsmore
  * @created 2011/11/11
@@ -30,72 +38,80 @@ import java.util.Map;
 public class ObjectInstanceTracker implements IObjectInstanceTracker
 {
     /**
-     * Contains counts of the number of times this translator has seen objects of specific types.
-     */
-    private final Map<Class<?>, Integer> _referenceCountMap = new HashMap<Class<?>, Integer>();
-
-    /**
-     * Contains string ids of objects known to this translator, indexed by the object's identity hash code.
+     * The numbering in use.  {@link #reset()} replaces it rather than clearing it, so a thread still numbering an
+     * object from before the reset finishes with the old numbering and its number can never turn up after the reset.
      */
-    private final Map<Integer, IObjectIdentifier> _knownObjectMap = new HashMap<Integer, IObjectIdentifier>();
+    private volatile Numbering _numbering = new Numbering();
 
 
-    public synchronized void reset()
+    public void reset()
     {
-        _referenceCountMap.clear();
-        _knownObjectMap.clear();
+        _numbering = new Numbering();
     }
 
 
     /**
      * Returns the map that holds counts of the number of times this translator has seen objects of specific types.
      *
-     * @return The reference count map.  Will never be <code>null</code>.
+     * @return The reference count map of the numbering in use.  Will never be <code>null</code>.
      */
-    protected Map<Class<?>, Integer> getReferenceCountMap()
+    protected ConcurrentMap<Class<?>, AtomicInteger> getReferenceCountMap()
     {
-        return _referenceCountMap;
+        return _numbering.getReferenceCountMap();
     }
 
 
     /**
-     * Returns the map that contains ids of objects known to this translator, indexed by the object's identity hash
-     * code.
+     * Returns the map that contains ids of objects known to this translator, indexed by the object's identity.
      *
-     * @return The known object map.  Will never be <code>null</code>.
+     * @return The known object map of the numbering in use.  Will never be <code>null</code>.
      */
-    protected Map<Integer, IObjectIdentifier> getKnownObjectMap()
+    protected ConcurrentMap<IdentityKey, IObjectIdentifier> getKnownObjectMap()
     {
-        return _knownObjectMap;
+        return _numbering.getKnownObjectMap();
     }
 
 
-    public synchronized IObjectIdentifier getObjectId(final Object object)
+    public IObjectIdentifier getObjectId(final Object object)
     {
-        // Get the object's id from our known object map.
-        IObjectIdentifier id = getKnownObjectMap().get(System.identityHashCode(object));
-        if (id == null)
+        // Both maps must come from the same numbering even if the tracker is reset while we're working.
+        final Numbering numbering = _numbering;
+
+        // Get the object's id from our known object map.  Most objects are seen more than once, so this is the common
+        // case and it takes no locks.
+        final IdentityKey key = new IdentityKey(object);
+        final IObjectIdentifier id = numbering.getKnownObjectMap().get(key);
+        if (id != null)
+        {
+            return id;
+        }
+
+        // We don't know about this object.  Get the reference count for its type.
+        AtomicInteger referenceCount = numbering.getReferenceCountMap().get(object.getClass());
+        if (referenceCount == null)
         {
-            // We don't know about this object.  Get the reference count from our ref count map.
-            Integer referenceCount = getReferenceCountMap().get(object.getClass());
+            // This is the first time we've seen anything of this type.
+            final AtomicInteger newReferenceCount = new AtomicInteger();
+            referenceCount = numbering.getReferenceCountMap().putIfAbsent(object.getClass(), newReferenceCount);
             if (referenceCount == null)
             {
-                // This is the first time we've seen anything of this type.
-                referenceCount = 0;
+                referenceCount = newReferenceCount;
             }
-            // We have one more of these things, so increment the reference count and put it back in the map for the
-            // next time we encounter a different one of these.
-            referenceCount++;
-            getReferenceCountMap().put(object.getClass(), referenceCount);
+        }
 
-            // Create an object id for this object.
-            id = createObjectId(object, referenceCount);
+        // Another thread may be numbering the same object, so we check again while holding the lock for the type.  The
+        // lock also keeps the numbers for the type consecutive.
+        synchronized (referenceCount)
+        {
+            IObjectIdentifier newId = numbering.getKnownObjectMap().get(key);
+            if (newId == null)
+            {
+                newId = createObjectId(object, referenceCount.incrementAndGet());
+                numbering.getKnownObjectMap().put(key, newId);
+            }
 
-            // Update our known object map so we know this object for next time.
-            getKnownObjectMap().put(System.identityHashCode(object), id);
+            return newId;
         }
-
-        return id;
     }
 
 
@@ -112,4 +128,64 @@ public class ObjectInstanceTracker implements IObjectInstanceTracker
     {
         return new ObjectIdentifier(object, instanceNumber);
     }
+
+
+    /**
+     * The counts and ids of one numbering, from one reset of the tracker to the next.
+     */
+    protected static final class Numbering
+    {
+        /**
+         * Contains counts of the number of times this translator has seen objects of specific types.
+         */
+        private final ConcurrentMap<Class<?>, AtomicInteger> _referenceCountMap = new ConcurrentHashMap<Class<?>, AtomicInteger>();
+
+        /**
+         * Contains ids of objects known to this translator, indexed by the object's identity.
+         */
+        private final ConcurrentMap<IdentityKey, IObjectIdentifier> _knownObjectMap = new ConcurrentHashMap<IdentityKey, IObjectIdentifier>();
+
+
+        public ConcurrentMap<Class<?>, AtomicInteger> getReferenceCountMap()
+        {
+            return _referenceCountMap;
+        }
+
+
+        public ConcurrentMap<IdentityKey, IObjectIdentifier> getKnownObjectMap()
+        {
+            return _knownObjectMap;
+        }
+    }
+
+
+    /**
+     * Map key that compares the objects it wraps by identity.
+     */
+    protected static final class IdentityKey
+    {
+        private final Object _object;
+        private final int _hashCode;
+
+
+        public IdentityKey(final Object object)
+        {
+            _object = object;
+            _hashCode = System.identityHashCode(object);
+        }
+
+
+        @Override
+        public int hashCode()
+        {
+            return _hashCode;
+        }
+
+
+        @Override
+        public boolean equals(final Object obj)
+        {
+            return obj instanceof IdentityKey && ((IdentityKey)obj)._object == _object;
+        }
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.instancetracking;
+
+
+import java.lang.ref.WeakReference;
+
+
+/**
+ * Identifies an object without keeping it alive.  The object's class name and instance number are kept so the
+ * identifier can still be written out after the object has been garbage collected.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class WeakObjectIdentifier implements IObjectIdentifier
+{
+    private final WeakReference<Object> _objectReference;
+    private final String _className;
+    private final int _instanceNumber;
+
+
+    public WeakObjectIdentifier(final Object object, final int instanceNumber)
+    {
+        _objectReference = new WeakReference<Object>(object);
+        _className = object.getClass().getName();
+        _instanceNumber = instanceNumber;
+    }
+
+
+    /**
+     * @return The identified object, or <code>null</code> if it has been garbage collected.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getObject()
+    {
+        return (T)_objectReference.get();
+    }
+
+
+    public String getClassName()
+    {
+        return _className;
+    }
+
+
+    public int getInstanceNumber()
+    {
+        return _instanceNumber;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s#%d", getClassName(), getInstanceNumber());
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * getClassName().hashCode() + getInstanceNumber();
+    }
+
+
+    @Override
+    public boolean equals(final Object obj)
+    {
+        if (!(obj instanceof WeakObjectIdentifier))
+        {
+            return false;
+        }
+
+        // A tracker never gives two objects the same number within a class, so the class and number identify the
+        // object even once it has gone.
+        final WeakObjectIdentifier other = (WeakObjectIdentifier)obj;
+        return getInstanceNumber() == other.getInstanceNumber() && getClassName().equals(other.getClassName());
+    }
+}
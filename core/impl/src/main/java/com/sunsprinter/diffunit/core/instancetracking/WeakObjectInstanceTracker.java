@@ -0,0 +1,225 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.instancetracking;
+
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * An instance tracker that holds the objects it identifies weakly (see {@link InstanceTrackingMode#WEAK}).  Objects
+ * are numbered exactly as by {@link ObjectInstanceTracker}.  When an object is garbage collected its entry is removed
+ * the next time the tracker is used, but the count for its class is never decreased, so its number is never given to
+ * another object.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class WeakObjectInstanceTracker implements IObjectInstanceTracker
+{
+    /**
+     * The numbering in use.  Replaced on reset, as in {@link ObjectInstanceTracker}.
+     */
+    private volatile Numbering _numbering = new Numbering();
+
+    /**
+     * Receives the keys of objects that have been garbage collected.
+     */
+    private final ReferenceQueue<Object> _collectedObjectQueue = new ReferenceQueue<Object>();
+
+
+    public void reset()
+    {
+        _numbering = new Numbering();
+        while (_collectedObjectQueue.poll() != null)
+        {
+            // Just drain the queue.  The entries have gone with the old numbering.
+        }
+    }
+
+
+    protected ConcurrentMap<String, AtomicInteger> getReferenceCountMap()
+    {
+        return _numbering.getReferenceCountMap();
+    }
+
+
+    protected ConcurrentMap<WeakIdentityKey, IObjectIdentifier> getKnownObjectMap()
+    {
+        return _numbering.getKnownObjectMap();
+    }
+
+
+    protected ReferenceQueue<Object> getCollectedObjectQueue()
+    {
+        return _collectedObjectQueue;
+    }
+
+
+    /**
+     * @return The number of objects currently known to this tracker.  Objects collected since the tracker was last used
+     *         may still be counted.
+     */
+    public int size()
+    {
+        return getKnownObjectMap().size();
+    }
+
+
+    public IObjectIdentifier getObjectId(final Object object)
+    {
+        removeCollectedObjects();
+
+        // Both maps must come from the same numbering even if the tracker is reset while we're working.
+        final Numbering numbering = _numbering;
+
+        final WeakIdentityKey lookupKey = new WeakIdentityKey(object, null);
+        final IObjectIdentifier id = numbering.getKnownObjectMap().get(lookupKey);
+        if (id != null)
+        {
+            return id;
+        }
+
+        final String className = object.getClass().getName();
+        AtomicInteger referenceCount = numbering.getReferenceCountMap().get(className);
+        if (referenceCount == null)
+        {
+            final AtomicInteger newReferenceCount = new AtomicInteger();
+            referenceCount = numbering.getReferenceCountMap().putIfAbsent(className, newReferenceCount);
+            if (referenceCount == null)
+            {
+                referenceCount = newReferenceCount;
+            }
+        }
+
+        synchronized (referenceCount)
+        {
+            IObjectIdentifier newId = numbering.getKnownObjectMap().get(lookupKey);
+            if (newId == null)
+            {
+                newId = createObjectId(object, referenceCount.incrementAndGet());
+                numbering.getKnownObjectMap().put(new WeakIdentityKey(object, getCollectedObjectQueue()), newId);
+            }
+
+            return newId;
+        }
+    }
+
+
+    /**
+     * Removes the entries of objects that have been garbage collected.
+     */
+    protected void removeCollectedObjects()
+    {
+        Reference<?> reference;
+        while ((reference = getCollectedObjectQueue().poll()) != null)
+        {
+            getKnownObjectMap().remove(reference);
+        }
+    }
+
+
+    /**
+     * Factory method to create {@link IObjectIdentifier} instances.  The identifier must not hold a strong reference to
+     * the object.  Default behavior is to create instances of {@link WeakObjectIdentifier}.
+     *
+     * @param object         The object for which the identifier must be created.  Will never be <code>null</code>.
+     * @param instanceNumber The instance number of this object.
+     *
+     * @return A new identifier for the object.  May not be <code>null</code>.
+     */
+    protected IObjectIdentifier createObjectId(final Object object, final int instanceNumber)
+    {
+        return new WeakObjectIdentifier(object, instanceNumber);
+    }
+
+
+    /**
+     * The counts and ids of one numbering, from one reset of the tracker to the next.
+     */
+    protected static final class Numbering
+    {
+        /**
+         * Contains counts of the number of times this translator has seen objects of specific types.  Keyed on class
+         * name so the tracker doesn't keep classes loaded.
+         */
+        private final ConcurrentMap<String, AtomicInteger> _referenceCountMap = new ConcurrentHashMap<String, AtomicInteger>();
+
+        /**
+         * Contains ids of objects known to this translator, indexed by a weak reference to the object.
+         */
+        private final ConcurrentMap<WeakIdentityKey, IObjectIdentifier> _knownObjectMap = new ConcurrentHashMap<WeakIdentityKey, IObjectIdentifier>();
+
+
+        public ConcurrentMap<String, AtomicInteger> getReferenceCountMap()
+        {
+            return _referenceCountMap;
+        }
+
+
+        public ConcurrentMap<WeakIdentityKey, IObjectIdentifier> getKnownObjectMap()
+        {
+            return _knownObjectMap;
+        }
+    }
+
+
+    /**
+     * Map key that refers to its object weakly and compares by identity.  A key whose object has been collected is
+     * equal only to itself, which is all that's needed to remove it from the map.
+     */
+    protected static final class WeakIdentityKey extends WeakReference<Object>
+    {
+        private final int _hashCode;
+
+
+        public WeakIdentityKey(final Object object, final ReferenceQueue<Object> queue)
+        {
+            super(object, queue);
+            _hashCode = System.identityHashCode(object);
+        }
+
+
+        @Override
+        public int hashCode()
+        {
+            return _hashCode;
+        }
+
+
+        @Override
+        public boolean equals(final Object obj)
+        {
+            if (obj == this)
+            {
+                return true;
+            }
+            if (!(obj instanceof WeakIdentityKey))
+            {
+                return false;
+            }
+
+            final Object object = get();
+            return object != null && object == ((WeakIdentityKey)obj).get();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.output;
+
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FileUtils;
+
+import com.sunsprinter.diffunit.core.context.TestingContextHolder;
+
+
+/**
+ * Clears out a test's output directory without making the test wait for its old contents to be deleted.  The old
+ * directory is renamed aside, which is a single cheap operation however many files it holds.  The renamed directory is
+ * then deleted on a background daemon thread shared by all tests.  The thread ends once it has been idle for {@link
+ * #DELETION_THREAD_KEEP_ALIVE_SECONDS} and is started again when needed.  If the directory can't be renamed it is
+ * deleted synchronously instead.<p/>
+ *
+ * Because the deleting thread is a daemon, renamed directories may outlive the JVM.  They are removed along with the
+ * next directory renamed aside next to them.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class OutputDirectoryCleaner
+{
+    /**
+     * Inserted between the name of a directory and a unique suffix to name the directory it is renamed to.
+     */
+    public static final String DISCARDED_DIRECTORY_MARKER = ".discarded-";
+
+    /**
+     * How long the deleting thread waits for more work before it ends.
+     */
+    public static final long DELETION_THREAD_KEEP_ALIVE_SECONDS = 1;
+
+    private static final ExecutorService DELETION_EXECUTOR = createDeletionExecutor();
+
+    private static final AtomicLong DISCARDED_DIRECTORY_COUNTER = new AtomicLong();
+
+
+    private static ExecutorService createDeletionExecutor()
+    {
+        final ThreadFactory threadFactory = new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(final Runnable runnable)
+            {
+                // The thread is created by whichever test first discards a directory, and would inherit that test's
+                // testing context and keep it reachable while it runs.  So the first thing it does is drop it.
+                final Thread thread = new Thread(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        TestingContextHolder.clear();
+                        runnable.run();
+                    }
+                }, "DiffUnit output directory cleaner");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        };
+
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, DELETION_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                                                                   new LinkedBlockingQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+
+    /**
+     * Removes a directory, deferring the deletion of its contents to the background thread where possible.  When this
+     * method returns the directory no longer exists under its own name.
+     *
+     * @param directory The directory to remove.  May not be <code>null</code>.  Nothing is done if it doesn't exist.
+     *
+     * @throws IOException If the directory can be neither renamed nor deleted.
+     */
+    public void discard(final File directory) throws IOException
+    {
+        if (!directory.exists())
+        {
+            return;
+        }
+
+        final File discardedDirectory = new File(directory.getAbsoluteFile().getParentFile(),
+                                                 String.format("%s%s%d-%d",
+                                                               directory.getName(),
+                                                               DISCARDED_DIRECTORY_MARKER,
+                                                               System.currentTimeMillis(),
+                                                               DISCARDED_DIRECTORY_COUNTER.incrementAndGet()));
+        if (directory.renameTo(discardedDirectory))
+        {
+            scheduleDeletion(discardedDirectory, directory.getName());
+        }
+        else
+        {
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+
+
+    /**
+     * Deletes a discarded directory on the background thread, along with any others discarded from the same directory
+     * that are still lying around.  If the background thread won't accept the work the directory is deleted now.
+     *
+     * @param discardedDirectory The directory to delete.  May not be <code>null</code>.
+     * @param directoryName      The name of the directory it was discarded from.  May not be <code>null</code>.
+     */
+    protected void scheduleDeletion(final File discardedDirectory, final String directoryName)
+    {
+        // Only names this class could have given, so that nothing else that happens to share the prefix is deleted.
+        final Pattern discardedNamePattern = Pattern.compile(Pattern.quote(directoryName + DISCARDED_DIRECTORY_MARKER) + "[0-9]+-[0-9]+");
+
+        final Runnable deletion = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                FileUtils.deleteQuietly(discardedDirectory);
+
+                final File[] leftovers = discardedDirectory.getParentFile().listFiles(new FileFilter()
+                {
+                    @Override
+                    public boolean accept(final File file)
+                    {
+                        return discardedNamePattern.matcher(file.getName()).matches();
+                    }
+                });
+                if (leftovers != null)
+                {
+                    for (final File leftover : leftovers)
+                    {
+                        FileUtils.deleteQuietly(leftover);
+                    }
+                }
+            }
+        };
+
+        try
+        {
+            DELETION_EXECUTOR.execute(deletion);
+        }
+        catch (final RejectedExecutionException e)
+        {
+            deletion.run();
+        }
+    }
+}
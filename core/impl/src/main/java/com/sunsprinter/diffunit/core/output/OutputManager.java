@@ -17,24 +17,81 @@
 package com.sunsprinter.diffunit.core.output;
 
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 
+import com.sunsprinter.diffunit.core.comparison.IFileComparer;
+import com.sunsprinter.diffunit.core.comparison.IIncrementalComparison;
 import com.sunsprinter.diffunit.core.context.ITestingContext;
 
 
 /**
- * OutputManager
+ * Collects the objects a test outputs and writes them to files for comparison with their known good versions.<p/>
+ *
+ * In {@link OutputMode#BUFFERED} mode, the default, objects are kept in the testing context's output objects collection
+ * and translated when {@link #writeFile(String)} is called.  In {@link OutputMode#STREAMING} mode each object is
+ * translated as soon as it is added and written to a pending file in the output directory.  Writing the file then only
+ * has to rename the pending file, so the amount of output never affects memory use.  In {@link OutputMode#IN_MEMORY}
+ * mode objects are kept just as in buffered mode, but the file is translated into memory and handed to the file
+ * comparer, which only writes it to disk if it doesn't match its known good version.<p/>
+ *
+ * In streaming mode output may also be compared with the known good file as it is written (see {@link
+ * #setFailFast(boolean)}).  The test is then stopped at the first line that differs, with whatever it wrote so far left
+ * in the output file.<p/>
+ *
+ * In every mode the digest of each file is computed as it is written and registered with the file comparer along with
+ * the file, so a comparison with a known good file of known digest doesn't need to read the generated file back.
  *
  * @author Kevan Dunsmore
  * @created 2011/11/13
  */
 public class OutputManager implements IOutputManager
 {
+    /**
+     * The name of the file streamed output is written to until the test names the file with {@link
+     * #writeFile(String)}.
+     */
+    private static final String PENDING_FILE_NAME = ".diffunit-pending";
+
     private ITestingContext _testingContext;
+    private OutputMode _outputMode = OutputMode.BUFFERED;
+
+    /**
+     * The writer for the file currently being streamed.  <code>null</code> when nothing has been streamed since the
+     * last file was written.
+     */
+    private PrintWriter _pendingWriter;
+
+    /**
+     * The digest of everything written to the pending writer so far.
+     */
+    private MessageDigest _pendingDigest;
+
+    private boolean _failFast;
+
+    /**
+     * The name of the file output is currently going to, as given to {@link #beginFile(String)}.
+     */
+    private String _fileName = DEFAULT_FILE_NAME;
+
+    /**
+     * The comparison of streamed output with the known good file.  <code>null</code> until the first object is streamed
+     * in fail fast mode.
+     */
+    private IIncrementalComparison _incrementalComparison;
 
 
     public ITestingContext getTestingContext()
@@ -49,6 +106,82 @@ public class OutputManager implements IOutputManager
     }
 
 
+    public OutputMode getOutputMode()
+    {
+        return _outputMode;
+    }
+
+
+    public void setOutputMode(final OutputMode outputMode)
+    {
+        _outputMode = outputMode;
+    }
+
+
+    protected PrintWriter getPendingWriter()
+    {
+        return _pendingWriter;
+    }
+
+
+    protected void setPendingWriter(final PrintWriter pendingWriter)
+    {
+        _pendingWriter = pendingWriter;
+    }
+
+
+    protected MessageDigest getPendingDigest()
+    {
+        return _pendingDigest;
+    }
+
+
+    protected void setPendingDigest(final MessageDigest pendingDigest)
+    {
+        _pendingDigest = pendingDigest;
+    }
+
+
+    public boolean isFailFast()
+    {
+        return _failFast;
+    }
+
+
+    /**
+     * @param failFast <code>true</code> to compare output with the known good file as it is streamed and stop the test
+     *                 at the first difference.  Only applies in {@link OutputMode#STREAMING} mode.
+     */
+    public void setFailFast(final boolean failFast)
+    {
+        _failFast = failFast;
+    }
+
+
+    protected String getFileName()
+    {
+        return _fileName;
+    }
+
+
+    protected void setFileName(final String fileName)
+    {
+        _fileName = fileName;
+    }
+
+
+    protected IIncrementalComparison getIncrementalComparison()
+    {
+        return _incrementalComparison;
+    }
+
+
+    protected void setIncrementalComparison(final IIncrementalComparison incrementalComparison)
+    {
+        _incrementalComparison = incrementalComparison;
+    }
+
+
     @Override
     public void addBlankLine() throws RuntimeException
     {
@@ -59,36 +192,140 @@ public class OutputManager implements IOutputManager
     @Override
     public void add(final Object object) throws RuntimeException
     {
-        getTestingContext().getOutputObjects().add(object);
+        if (getOutputMode() == OutputMode.STREAMING)
+        {
+            stream(getTestingContext().getRootTranslator().translate(object));
+        }
+        else
+        {
+            getTestingContext().getOutputObjects().add(object);
+        }
     }
 
 
     @Override
     public void addAsString(final Object object) throws RuntimeException
     {
-        getTestingContext().getOutputObjects().add(getTestingContext().getRootTranslator().translate(object));
+        final String translation = getTestingContext().getRootTranslator().translate(object);
+        if (getOutputMode() == OutputMode.STREAMING)
+        {
+            stream(translation);
+        }
+        else
+        {
+            getTestingContext().getOutputObjects().add(translation);
+        }
+    }
+
+
+    @Override
+    public boolean hasUnwrittenOutput()
+    {
+        return getPendingWriter() != null || !getTestingContext().getOutputObjects().isEmpty();
+    }
+
+
+    @Override
+    public void abandonUnwrittenOutput()
+    {
+        closeIncrementalComparison();
+        IOUtils.closeQuietly(getPendingWriter());
+        setPendingWriter(null);
+        setPendingDigest(null);
+        setFileName(DEFAULT_FILE_NAME);
+        getTestingContext().getOutputObjects().clear();
+    }
+
+
+    @Override
+    public void beginFile(final String fileName) throws RuntimeException
+    {
+        closeIncrementalComparison();
+        setFileName(fileName);
     }
 
 
     @Override
     public void writeFile(final String fileName) throws RuntimeException
     {
+        // Output compared as it was written has to end up in the file it was compared with, or the comparison meant
+        // nothing.
+        if (getIncrementalComparison() != null && !getFileName().equals(fileName))
+        {
+            throw new RuntimeException("Unable to write file " + fileName + ".  Its output was compared with known good " +
+                                       "file " + getFileName() + " as it was written.  Call beginFile(\"" + fileName +
+                                       "\") before adding the file's output.");
+        }
+
+        // Whatever follows goes to a new file, which is the default one unless the test says otherwise.
+        closeIncrementalComparison();
+        setFileName(DEFAULT_FILE_NAME);
+
         final File outputFile = new File(getTestingContext().getOutputDirectory(), fileName);
-        final PrintWriter writer;
+
+        if (getOutputMode() == OutputMode.IN_MEMORY)
+        {
+            writeInMemoryFile(outputFile);
+            return;
+        }
+
+        final byte[] digest;
+        if (getOutputMode() == OutputMode.STREAMING)
+        {
+            digest = writeStreamedFile(outputFile);
+        }
+        else
+        {
+            digest = writeBufferedFile(outputFile);
+        }
+
+        // Register the file we've just written with the file comparer, for comparison later with its known good version.
+        getTestingContext().getFileComparer().registerFileToCompare(outputFile, digest);
+    }
+
+
+    /**
+     * Translates and writes all the objects held in the testing context's output objects collection to the output
+     * file.
+     *
+     * @param outputFile The file to write.  May not be <code>null</code>.
+     *
+     * @return The digest of the file's contents.  Will never be <code>null</code>.
+     */
+    protected byte[] writeBufferedFile(final File outputFile)
+    {
+        final MessageDigest digest = createMessageDigest();
+        final PrintWriter writer = createWriter(outputFile, digest);
         try
         {
-            writer = new PrintWriter(outputFile);
+            writeOutputObjects(writer);
+            writer.flush();
+            return digest.digest();
         }
-        catch (final FileNotFoundException e)
+        finally
         {
-            throw new RuntimeException("Unable to write file " + fileName + ".  Cannot create PrintWriter.", e);
+            IOUtils.closeQuietly(writer);
+
+            // Clear the output objects collection in preparation for the next file, if any.
+            getTestingContext().getOutputObjects().clear();
         }
+    }
+
+
+    /**
+     * Translates all the objects held in the testing context's output objects collection into memory and registers the
+     * result with the file comparer.  Nothing is written to disk.
+     *
+     * @param outputFile The file the output would have been written to.  May not be <code>null</code>.
+     */
+    protected void writeInMemoryFile(final File outputFile)
+    {
+        final MessageDigest digest = createMessageDigest();
+        final ByteArrayOutputStream contents = new ByteArrayOutputStream();
+        final PrintWriter writer = createWriter(contents, digest);
         try
         {
-            for (final Object object : getTestingContext().getOutputObjects())
-            {
-                writer.println(getTestingContext().getRootTranslator().translate(object));
-            }
+            writeOutputObjects(writer);
         }
         finally
         {
@@ -98,7 +335,196 @@ public class OutputManager implements IOutputManager
             getTestingContext().getOutputObjects().clear();
         }
 
-        // Register the file we've just written with the file comparer, for comparison later with its known good version.
-        getTestingContext().getFileComparer().registerFileToCompare(outputFile);
+        getTestingContext().getFileComparer().registerContentsToCompare(outputFile, contents.toByteArray(), digest.digest());
+    }
+
+
+    /**
+     * Translates and writes all the objects held in the testing context's output objects collection, one per line.
+     *
+     * @param writer The writer to write to.  May not be <code>null</code>.
+     */
+    protected void writeOutputObjects(final PrintWriter writer)
+    {
+        for (final Object object : getTestingContext().getOutputObjects())
+        {
+            writer.println(getTestingContext().getRootTranslator().translate(object));
+        }
+    }
+
+
+    /**
+     * Completes the pending file that output has been streamed to and moves it to the output file.
+     *
+     * @param outputFile The file to write.  May not be <code>null</code>.
+     *
+     * @return The digest of the file's contents.  Will never be <code>null</code>.
+     */
+    protected byte[] writeStreamedFile(final File outputFile)
+    {
+        if (getPendingWriter() == null)
+        {
+            // Nothing was added since the last file.  We still write an empty file, just as buffered mode would.
+            final MessageDigest digest = createMessageDigest();
+            IOUtils.closeQuietly(createWriter(outputFile, digest));
+            return digest.digest();
+        }
+
+        final PrintWriter writer = getPendingWriter();
+        final MessageDigest digest = getPendingDigest();
+        setPendingWriter(null);
+        setPendingDigest(null);
+
+        // PrintWriter swallows I/O errors, so we have to ask it whether anything went wrong.
+        final boolean writeFailed = writer.checkError();
+        IOUtils.closeQuietly(writer);
+        if (writeFailed)
+        {
+            throw new RuntimeException("Unable to write file " + outputFile.getName() + ".  Error writing output.");
+        }
+
+        final File pendingFile = getPendingFile();
+        try
+        {
+            if (outputFile.exists())
+            {
+                FileUtils.forceDelete(outputFile);
+            }
+            FileUtils.moveFile(pendingFile, outputFile);
+        }
+        catch (final IOException e)
+        {
+            throw new RuntimeException("Unable to write file " + outputFile.getName() + ".  Cannot move " +
+                                       pendingFile.getAbsolutePath() + ".", e);
+        }
+
+        return digest.digest();
+    }
+
+
+    /**
+     * Writes a translated object to the pending file, opening it if this is the first object since the last file was
+     * written.
+     *
+     * @param translation The translated object.  May not be <code>null</code>.
+     */
+    protected void stream(final String translation)
+    {
+        if (getPendingWriter() == null)
+        {
+            setPendingDigest(createMessageDigest());
+            setPendingWriter(createWriter(getPendingFile(), getPendingDigest()));
+        }
+
+        getPendingWriter().println(translation);
+
+        if (isFailFast())
+        {
+            compareIncrementally(translation);
+        }
+    }
+
+
+    /**
+     * Compares a translated object just streamed with the next lines of the known good file.  If they differ the
+     * comparison fails, which stops the test, and the output streamed so far is written to the output file.
+     *
+     * @param translation The translated object.  May not be <code>null</code>.
+     */
+    protected void compareIncrementally(final String translation)
+    {
+        boolean matched = false;
+        try
+        {
+            if (getIncrementalComparison() == null)
+            {
+                setIncrementalComparison(getTestingContext().getFileComparer().beginIncrementalComparison(getFileName()));
+            }
+
+            getIncrementalComparison().compareLines(translation);
+            matched = true;
+        }
+        catch (final Exception e)
+        {
+            throw new RuntimeException("Unable to compare file " + getFileName() + " with its known good version.", e);
+        }
+        finally
+        {
+            if (!matched)
+            {
+                // The test is about to stop.  The developer will want to see what it generated up to this point.
+                closeIncrementalComparison();
+                writeStreamedFile(new File(getTestingContext().getOutputDirectory(), getFileName()));
+            }
+        }
+    }
+
+
+    protected void closeIncrementalComparison()
+    {
+        IOUtils.closeQuietly(getIncrementalComparison());
+        setIncrementalComparison(null);
+    }
+
+
+    /**
+     * @return The file that streamed output is written to until the test calls {@link #writeFile(String)}.
+     */
+    protected File getPendingFile()
+    {
+        return new File(getTestingContext().getOutputDirectory(), PENDING_FILE_NAME);
+    }
+
+
+    /**
+     * Factory method to create the writer used to write output files.  The writer is buffered.
+     *
+     * @param file   The file to write to.  May not be <code>null</code>.
+     * @param digest The digest to update with every byte written to the file.  May not be <code>null</code>.
+     *
+     * @return The writer.  Will never be <code>null</code>.
+     */
+    protected PrintWriter createWriter(final File file, final MessageDigest digest)
+    {
+        try
+        {
+            return createWriter(new FileOutputStream(file), digest);
+        }
+        catch (final FileNotFoundException e)
+        {
+            throw new RuntimeException("Unable to write file " + file.getName() + ".  Cannot create PrintWriter.", e);
+        }
+    }
+
+
+    /**
+     * Factory method to create the writer used to write output to a stream.  The writer is buffered.
+     *
+     * @param outputStream The stream to write to.  May not be <code>null</code>.
+     * @param digest       The digest to update with every byte written to the stream.  May not be <code>null</code>.
+     *
+     * @return The writer.  Will never be <code>null</code>.
+     */
+    protected PrintWriter createWriter(final OutputStream outputStream, final MessageDigest digest)
+    {
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(new DigestOutputStream(outputStream, digest))));
+    }
+
+
+    /**
+     * Factory method to create the digest computed over each output file as it is written.
+     *
+     * @return The digest.  Will never be <code>null</code>.
+     */
+    protected MessageDigest createMessageDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance(IFileComparer.DIGEST_ALGORITHM);
+        }
+        catch (final NoSuchAlgorithmException e)
+        {
+            throw new RuntimeException("Unable to create " + IFileComparer.DIGEST_ALGORITHM + " digest.", e);
+        }
     }
 }
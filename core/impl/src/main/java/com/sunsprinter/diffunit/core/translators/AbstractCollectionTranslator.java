@@ -17,13 +17,21 @@
 package com.sunsprinter.diffunit.core.translators;
 
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
 
 import org.apache.commons.lang3.SystemUtils;
 
 
 /**
- * AbstractCollectionTranslator
+ * Abstract base for translators that translate each element of a collection with the delegate translator.<p/>
+ *
+ * Very large collections can be limited to their first elements ({@link #limitToFirst(int)}), their last elements
+ * ({@link #limitToLast(int)}) or a sample of every so many elements ({@link #sampleEvery(int)}).  Elements that aren't
+ * shown are still translated, but only to contribute to a 64 bit FNV-1a hash.  The hash and the number of elements not
+ * shown are written after the elements that are shown, so a change anywhere in the collection still changes the
+ * output.
  *
  * @author Kevan Dunsmore
  * @created 2011/11/12
@@ -34,6 +42,8 @@ public abstract class AbstractCollectionTranslator<T> extends AbstractDelegating
     private String _surroundingString = "";
     private String _postElementString = "";
     private String _elementSeparator = "\n";
+    private ElementLimit _elementLimit = ElementLimit.NONE;
+    private int _elementLimitCount;
 
 
     protected String getSurroundingString()
@@ -116,31 +126,345 @@ public abstract class AbstractCollectionTranslator<T> extends AbstractDelegating
     }
 
 
-    @Override
-    protected String doTranslate(final T object) throws TranslationException
+    protected ElementLimit getElementLimit()
     {
-        final Iterator<Object> iterator = convertToIterator(object);
+        return _elementLimit;
+    }
+
+
+    protected void setElementLimit(final ElementLimit elementLimit)
+    {
+        _elementLimit = elementLimit;
+    }
+
+
+    protected int getElementLimitCount()
+    {
+        return _elementLimitCount;
+    }
+
+
+    protected void setElementLimitCount(final int elementLimitCount)
+    {
+        _elementLimitCount = elementLimitCount;
+    }
+
+
+    /**
+     * Specifies that only the first elements of a collection are shown.
+     *
+     * @param count The number of elements to show.  Must be positive.
+     *
+     * @return This translator, to facilitate call chaining.  Will never be <code>null</code>.
+     */
+    @SuppressWarnings("unchecked")
+    public <I extends AbstractCollectionTranslator<T>> I limitToFirst(final int count)
+    {
+        limitElements(ElementLimit.FIRST, count);
+        return (I)this;
+    }
+
+
+    /**
+     * Specifies that only the last elements of a collection are shown.
+     *
+     * @param count The number of elements to show.  Must be positive.
+     *
+     * @return This translator, to facilitate call chaining.  Will never be <code>null</code>.
+     */
+    @SuppressWarnings("unchecked")
+    public <I extends AbstractCollectionTranslator<T>> I limitToLast(final int count)
+    {
+        limitElements(ElementLimit.LAST, count);
+        return (I)this;
+    }
 
+
+    /**
+     * Specifies that only every so many elements of a collection are shown, starting with the first.
+     *
+     * @param interval The interval between the elements shown.  Must be positive.
+     *
+     * @return This translator, to facilitate call chaining.  Will never be <code>null</code>.
+     */
+    @SuppressWarnings("unchecked")
+    public <I extends AbstractCollectionTranslator<T>> I sampleEvery(final int interval)
+    {
+        limitElements(ElementLimit.SAMPLE, interval);
+        return (I)this;
+    }
+
+
+    /**
+     * Specifies that every element of a collection is shown.  This is the default.
+     *
+     * @return This translator, to facilitate call chaining.  Will never be <code>null</code>.
+     */
+    @SuppressWarnings("unchecked")
+    public <I extends AbstractCollectionTranslator<T>> I showAllElements()
+    {
+        limitElements(ElementLimit.NONE, 0);
+        return (I)this;
+    }
+
+
+    protected void limitElements(final ElementLimit elementLimit, final int count)
+    {
+        if (elementLimit != ElementLimit.NONE && count <= 0)
+        {
+            throw new IllegalArgumentException(String.format("Element limit %s needs a positive count, not %d.",
+                                                             elementLimit,
+                                                             count));
+        }
+
+        setElementLimit(elementLimit);
+        setElementLimitCount(count);
+    }
+
+
+    @Override
+    protected final String doTranslate(final T object) throws TranslationException
+    {
         final StringBuilder sb = new StringBuilder();
+        doTranslate(object, sb);
+        return sb.toString();
+    }
+
+
+    @Override
+    protected void doTranslate(final T object, final StringBuilder sink) throws TranslationException
+    {
+        final int start = sink.length();
+        sink.append(getSurroundingString());
+        final int contentStart = sink.length();
+
+        appendElements(object, sink);
 
-        if (iterator.hasNext())
+        // Only surround contents when they're not empty.
+        if (sink.length() == contentStart)
         {
-            sb.append(getPreElementString());
-            sb.append(getDelegateTranslator().translate(iterator.next()));
-            sb.append(getPostElementString());
+            sink.setLength(start);
         }
+        else
+        {
+            sink.append(getSurroundingString());
+        }
+    }
+
+
+    /**
+     * Appends the elements of the collection to the sink, each one translated by the delegate translator and
+     * separated from the next, subject to the element limit.  Subclasses that can reach their elements without an
+     * iterator may override, using an {@link ElementWriter} to apply the element limit.
+     *
+     * @param object The collection.  Will never be <code>null</code>.
+     * @param sink   The buffer to append the elements to.  Will never be <code>null</code>.
+     *
+     * @throws TranslationException If an element cannot be translated.
+     */
+    protected void appendElements(final T object, final StringBuilder sink) throws TranslationException
+    {
+        final Iterator<Object> iterator = convertToIterator(object);
+        final ElementWriter elementWriter = createElementWriter(sink, determineSize(object));
+
         while (iterator.hasNext())
         {
-            sb.append(getElementSeparator());
-            sb.append(getPreElementString());
-            sb.append(getDelegateTranslator().translate(iterator.next()));
-            sb.append(getPostElementString());
+            appendTranslation(getDelegateTranslator(), iterator.next(), elementWriter.beginElement());
+            elementWriter.endElement();
         }
 
-        // Only surround contents when the buffer is not empty.
-        return sb.length() == 0 ? "" : getSurroundingString() + sb.toString() + getSurroundingString();
+        elementWriter.finish();
+    }
+
+
+    /**
+     * Determines the number of elements in the collection without iterating over it, if that's possible.  Knowing the
+     * size lets the last elements of a collection be picked out as they're reached.  Otherwise they have to be held
+     * back until the end.  By default the size is not known.
+     *
+     * @param object The collection.  Will never be <code>null</code>.
+     *
+     * @return The number of elements, or <code>-1</code> if it's not known.
+     */
+    protected int determineSize(final T object)
+    {
+        return -1;
+    }
+
+
+    protected ElementWriter createElementWriter(final StringBuilder sink, final int size)
+    {
+        return new ElementWriter(sink, size);
     }
 
 
     protected abstract Iterator<Object> convertToIterator(T object) throws TranslationException;
+
+
+    /**
+     * The ways in which the elements shown may be limited.
+     */
+    public enum ElementLimit
+    {
+        /**
+         * Every element is shown.
+         */
+        NONE,
+
+        /**
+         * The first elements are shown.
+         */
+        FIRST,
+
+        /**
+         * The last elements are shown.
+         */
+        LAST,
+
+        /**
+         * Every so many elements are shown, starting with the first.
+         */
+        SAMPLE
+    }
+
+
+    /**
+     * Writes the elements of a single collection, applying the element limit.  For each element, the translation is
+     * appended to the buffer returned by {@link #beginElement()} and {@link #endElement()} is then called.  {@link
+     * #finish()} is called after the last element.
+     */
+    protected class ElementWriter
+    {
+        private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+        private static final long FNV_PRIME = 0x100000001b3L;
+
+        private final StringBuilder _sink;
+        private final int _size;
+        private final ElementLimit _elementLimit = getElementLimit();
+        private final int _elementLimitCount = getElementLimitCount();
+        private final StringBuilder _scratch = new StringBuilder();
+
+        /**
+         * The last elements seen, when the last elements are shown but the size of the collection isn't known.
+         */
+        private final Deque<String> _heldBack;
+
+        private int _count;
+        private int _shown;
+        private int _notShown;
+        private long _hash = FNV_OFFSET_BASIS;
+        private boolean _showingCurrent;
+
+
+        public ElementWriter(final StringBuilder sink, final int size)
+        {
+            _sink = sink;
+            _size = size;
+            _heldBack = _elementLimit == ElementLimit.LAST && size < 0 ? new ArrayDeque<String>() : null;
+        }
+
+
+        /**
+         * @return The buffer the translation of the next element is to be appended to.  Will never be
+         *         <code>null</code>.
+         */
+        public StringBuilder beginElement()
+        {
+            _showingCurrent = isShown(_count);
+            if (_showingCurrent)
+            {
+                appendSeparatorAndPrefix();
+                return _sink;
+            }
+
+            _scratch.setLength(0);
+            return _scratch;
+        }
+
+
+        public void endElement()
+        {
+            _count++;
+            if (_showingCurrent)
+            {
+                _sink.append(getPostElementString());
+            }
+            else if (_heldBack != null)
+            {
+                _heldBack.addLast(_scratch.toString());
+                if (_heldBack.size() > _elementLimitCount)
+                {
+                    hashNotShown(_heldBack.removeFirst());
+                }
+            }
+            else
+            {
+                hashNotShown(_scratch);
+            }
+        }
+
+
+        public void finish()
+        {
+            if (_heldBack != null)
+            {
+                for (final String element : _heldBack)
+                {
+                    appendSeparatorAndPrefix();
+                    _sink.append(element).append(getPostElementString());
+                }
+            }
+
+            if (_notShown > 0)
+            {
+                if (_shown > 0)
+                {
+                    _sink.append(getElementSeparator());
+                }
+                _sink.append(String.format("%d of %d elements not shown, FNV-1a hash %016x", _notShown, _count, _hash));
+            }
+        }
+
+
+        protected boolean isShown(final int index)
+        {
+            switch (_elementLimit)
+            {
+                case FIRST:
+                    return index < _elementLimitCount;
+                case LAST:
+                    return _heldBack == null && index >= _size - _elementLimitCount;
+                case SAMPLE:
+                    return index % _elementLimitCount == 0;
+                default:
+                    return true;
+            }
+        }
+
+
+        private void appendSeparatorAndPrefix()
+        {
+            if (_shown++ > 0)
+            {
+                _sink.append(getElementSeparator());
+            }
+            _sink.append(getPreElementString());
+        }
+
+
+        private void hashNotShown(final CharSequence translation)
+        {
+            long hash = _hash;
+            for (int i = 0; i < translation.length(); i++)
+            {
+                final char c = translation.charAt(i);
+                hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+                hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+            }
+
+            // Mark the end of each element so that moving text from one element to the next changes the hash.
+            _hash = (hash ^ 0xff) * FNV_PRIME;
+            _notShown++;
+        }
+    }
 }
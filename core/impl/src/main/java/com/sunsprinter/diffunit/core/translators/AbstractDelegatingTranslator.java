@@ -27,7 +27,9 @@ import com.sunsprinter.diffunit.core.instancetracking.IObjectIdentifier;
  * part of the translation work.<p/>
  *
  * If a delegate translator is not specified using the {@link #use(ITranslator)} method then this class will return
- * the root translator, as obtained from the testing context supplied by {@link TestingContextHolder}.
+ * the undecorated root translator, as obtained from the testing context supplied by {@link TestingContextHolder}.
+ * Decorators of the root translator, such as regular expression replacement, are therefore applied once to the
+ * outermost translation rather than again at every level of nesting.
  *
  * @author Kevan Dunsmore
  * @created 2011/11/12
@@ -42,7 +44,7 @@ public abstract class AbstractDelegatingTranslator<T> extends AbstractTranslator
 
     protected ITranslator<Object> getDelegateTranslator()
     {
-        return _delegateTranslator == null ? getTestingContext().getRootTranslator() : _delegateTranslator;
+        return _delegateTranslator == null ? getTestingContext().getUndecoratedRootTranslator() : _delegateTranslator;
     }
 
 
@@ -20,6 +20,7 @@ package com.sunsprinter.diffunit.core.translators;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,9 +29,12 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -46,6 +50,13 @@ public abstract class AbstractPropertyDrivenTranslator<T> extends AbstractDelega
     private Collection<String> _propertiesToTranslate = new LinkedHashSet<String>();
     private final Set<String> _propertiesToSkip = new HashSet<String>(Arrays.asList("class"));
 
+    /**
+     * Contains the property plan (see {@link #determinePropertyPlan(Object)}) for each class translated so far.  The whole
+     * map is replaced when the configuration changes so that a translation racing with the change can never put a stale
+     * plan into the new cache.
+     */
+    private volatile ConcurrentMap<Class<?>, List<PropertyAccessor>> _propertyPlanCache = createPropertyPlanCache();
+
 
     @SuppressWarnings("unchecked")
     public <I extends AbstractPropertyDrivenTranslator<T>> I translateProperties(final String... propertiesToTranslate)
@@ -56,6 +67,7 @@ public abstract class AbstractPropertyDrivenTranslator<T> extends AbstractDelega
         }
 
         getPropertiesToTranslate().addAll(Arrays.asList(propertiesToTranslate));
+        clearPropertyPlanCache();
 
         return (I)this;
     }
@@ -65,6 +77,7 @@ public abstract class AbstractPropertyDrivenTranslator<T> extends AbstractDelega
     public <I extends AbstractPropertyDrivenTranslator<T>> I skipProperties(final String... propertiesToSkip)
     {
         getPropertiesToSkip().addAll(Arrays.asList(propertiesToSkip));
+        clearPropertyPlanCache();
 
         return (I)this;
     }
@@ -79,6 +92,7 @@ public abstract class AbstractPropertyDrivenTranslator<T> extends AbstractDelega
     protected void setPropertiesToTranslate(final Collection<String> propertiesToTranslate)
     {
         _propertiesToTranslate = propertiesToTranslate;
+        clearPropertyPlanCache();
     }
 
 
@@ -88,6 +102,79 @@ public abstract class AbstractPropertyDrivenTranslator<T> extends AbstractDelega
     }
 
 
+    protected ConcurrentMap<Class<?>, List<PropertyAccessor>> getPropertyPlanCache()
+    {
+        return _propertyPlanCache;
+    }
+
+
+    /**
+     * Discards all cached property plans.  Called whenever the properties to translate or skip change.  Subclasses that
+     * modify those collections directly must call this method afterwards.
+     */
+    protected void clearPropertyPlanCache()
+    {
+        _propertyPlanCache = createPropertyPlanCache();
+    }
+
+
+    /**
+     * Returns the accessors for the properties of the object to translate, in the order they should be translated.  The
+     * plan is worked out by {@link #determinePropertiesEligibleForTranslation(Object)} the first time an object of a
+     * given class is seen and reused for every later object of that class, so introspection, sorting and filtering
+     * happen once per class rather than once per object.
+     *
+     * @param object The object to translate.  May not be <code>null</code>.
+     *
+     * @return The property plan.  Will never be <code>null</code>.
+     *
+     * @throws TranslationException If the properties of the object cannot be determined.
+     */
+    protected List<PropertyAccessor> determinePropertyPlan(final T object) throws TranslationException
+    {
+        final ConcurrentMap<Class<?>, List<PropertyAccessor>> propertyPlanCache = getPropertyPlanCache();
+
+        List<PropertyAccessor> propertyPlan = propertyPlanCache.get(object.getClass());
+        if (propertyPlan == null)
+        {
+            final List<PropertyAccessor> accessors = new ArrayList<PropertyAccessor>();
+            for (final PropertyDescriptor propertyDescriptor : determinePropertiesEligibleForTranslation(object))
+            {
+                accessors.add(createPropertyAccessor(propertyDescriptor));
+            }
+            propertyPlan = Collections.unmodifiableList(accessors);
+            propertyPlanCache.put(object.getClass(), propertyPlan);
+        }
+
+        return propertyPlan;
+    }
+
+
+    /**
+     * Factory method to create the accessor used to read a property.  By default creates an instance of {@link
+     * PropertyAccessor}.
+     *
+     * @param propertyDescriptor The property.  Will never be <code>null</code> and will always have a read method.
+     *
+     * @return The accessor.  Will never be <code>null</code>.
+     */
+    protected PropertyAccessor createPropertyAccessor(final PropertyDescriptor propertyDescriptor)
+    {
+        return new PropertyAccessor(propertyDescriptor);
+    }
+
+
+    /**
+     * Factory method to create the cache of property plans.  Creates a new instance of {@link ConcurrentHashMap}.
+     *
+     * @return The property plan cache.  Will never be <code>null</code>.
+     */
+    protected ConcurrentMap<Class<?>, List<PropertyAccessor>> createPropertyPlanCache()
+    {
+        return new ConcurrentHashMap<Class<?>, List<PropertyAccessor>>();
+    }
+
+
     protected Collection<PropertyDescriptor> determinePropertiesEligibleForTranslation(final T object) throws TranslationException
     {
         // We don't have a map of property names to properties.  We create one now.  We use a linked hash map to
@@ -27,12 +27,17 @@ import com.sunsprinter.diffunit.core.instancetracking.IObjectInstanceTracker;
  * Abstract base for translators.  Provides the following functionality for subclasses:<p/>
  *
  * Testing context handling: This class allows customization of the testing context.  If the context is not customized,
- * this class will return {@link TestingContextHolder#CONTEXT} when {@link #getTestingContext()} is called.<p/>
+ * this class will return {@link TestingContextHolder#get()} when {@link #getTestingContext()} is called.<p/>
  *
  * Null reference handling: Checks for null references and returns a consistent string translation for those references.
  * Subclasses will be called on the {@link #doTranslate(Object)} method, guaranteed not to be supplied a null
  * reference.<p/>
  *
+ * Appending: Translations are appended to a buffer supplied by the caller through {@link #translate(Object,
+ * StringBuilder)}.  {@link #translate(Object)} appends to a new buffer and returns its contents.  Subclasses that
+ * delegate to other translators may override {@link #doTranslate(Object, StringBuilder)} to pass the buffer on, using
+ * {@link #appendTranslation(ITranslator, Object, StringBuilder)}.<p/>
+ *
  * Instance tracker handling: This class obtains its instance tracker from the {@link ITestingContext}.  The instance
  * tracker may be set explicitly, in which case it will be used in preference to the default one.  Subclasses can call
  * {@link #getInstanceTracker()} and be guaranteed to get a non-null tracker.<p/>
@@ -44,7 +49,7 @@ import com.sunsprinter.diffunit.core.instancetracking.IObjectInstanceTracker;
  * @author Kevan Dunsmore
  * @created 2011/11/10
  */
-public abstract class AbstractTranslator<T> extends AbstractTestingContextUser implements ITranslator<T>
+public abstract class AbstractTranslator<T> extends AbstractTestingContextUser implements IAppendingTranslator<T>
 {
     /**
      * The instance tracker used by this translator.
@@ -146,8 +151,66 @@ public abstract class AbstractTranslator<T> extends AbstractTestingContextUser i
             return "null";
         }
 
-        final String translation = doTranslate(object);
-        return String.format("%s%s%s", getPreTranslationString(), translation, getPostTranslationString());
+        final StringBuilder sb = new StringBuilder();
+        translate(object, sb);
+        return sb.toString();
+    }
+
+
+    @Override
+    public void translate(final T object, final StringBuilder sink) throws TranslationException
+    {
+        if (object == null)
+        {
+            sink.append("null");
+            return;
+        }
+
+        sink.append(getPreTranslationString());
+        doTranslate(object, sink);
+        sink.append(getPostTranslationString());
+    }
+
+
+    /**
+     * Called by {@link #translate(Object, StringBuilder)} to append the translation of an object that is not
+     * <code>null</code>.  By default appends the result of {@link #doTranslate(Object)}.  Subclasses may override to
+     * append directly to the sink, in which case {@link #doTranslate(Object)} should be implemented in terms of this
+     * method and made <code>final</code>, so that a further subclass cannot override a method that is never called.
+     *
+     * @param object The object to be translated.  May not be <code>null</code>.
+     * @param sink   The buffer to append the translation to.  Will never be <code>null</code>.
+     *
+     * @throws TranslationException If an error occurs.
+     */
+    protected void doTranslate(final T object, final StringBuilder sink) throws TranslationException
+    {
+        sink.append(doTranslate(object));
+    }
+
+
+    /**
+     * Appends the translation of an object by another translator to the sink.  Translators that can append to the sink
+     * themselves are asked to do so.  The results of any others are appended.
+     *
+     * @param translator The translator to use.  May not be <code>null</code>.
+     * @param object     The object to translate.  May be <code>null</code>.
+     * @param sink       The buffer to append the translation to.  May not be <code>null</code>.
+     *
+     * @throws TranslationException If the translator fails.
+     */
+    protected static <X> void appendTranslation(final ITranslator<X> translator,
+                                                final X object,
+                                                final StringBuilder sink) throws TranslationException
+    {
+        if (translator instanceof IAppendingTranslator)
+        {
+            ((IAppendingTranslator<X>)translator).translate(object, sink);
+        }
+        else
+        {
+            sink.append(translator.translate(object));
+        }
     }
 
 
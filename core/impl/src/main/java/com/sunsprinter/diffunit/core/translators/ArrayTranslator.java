@@ -17,14 +17,15 @@
 package com.sunsprinter.diffunit.core.translators;
 
 
+import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Iterator;
 
-import com.sun.org.apache.xml.internal.utils.ObjectPool;
-
 
 /**
- * ArrayTranslator
+ * Translates arrays.  The elements of object arrays are translated by the delegate translator.  The elements of
+ * primitive arrays are appended to the output as their {@link String#valueOf} values, without being boxed, which is
+ * how the root translator would translate them by default.
  *
  * @author Kevan Dunsmore
  * @created 2011/11/12
@@ -36,4 +37,94 @@ public class ArrayTranslator extends AbstractCollectionTranslator<Object>
     {
         return Arrays.asList((Object[])object).iterator();
     }
+
+
+    /**
+     * Appends the elements of the array.  The type of a primitive array is checked once, and its elements are then
+     * appended in a loop over that type.
+     */
+    @Override
+    protected void appendElements(final Object array, final StringBuilder sink) throws TranslationException
+    {
+        if (!array.getClass().getComponentType().isPrimitive())
+        {
+            super.appendElements(array, sink);
+            return;
+        }
+
+        final ElementWriter elementWriter = createElementWriter(sink, Array.getLength(array));
+        if (array instanceof int[])
+        {
+            for (final int element : (int[])array)
+            {
+                elementWriter.beginElement().append(element);
+                elementWriter.endElement();
+            }
+        }
+        else if (array instanceof long[])
+        {
+            for (final long element : (long[])array)
+            {
+                elementWriter.beginElement().append(element);
+                elementWriter.endElement();
+            }
+        }
+        else if (array instanceof double[])
+        {
+            for (final double element : (double[])array)
+            {
+                elementWriter.beginElement().append(element);
+                elementWriter.endElement();
+            }
+        }
+        else if (array instanceof byte[])
+        {
+            for (final byte element : (byte[])array)
+            {
+                elementWriter.beginElement().append(element);
+                elementWriter.endElement();
+            }
+        }
+        else if (array instanceof float[])
+        {
+            for (final float element : (float[])array)
+            {
+                elementWriter.beginElement().append(element);
+                elementWriter.endElement();
+            }
+        }
+        else if (array instanceof short[])
+        {
+            for (final short element : (short[])array)
+            {
+                elementWriter.beginElement().append(element);
+                elementWriter.endElement();
+            }
+        }
+        else if (array instanceof char[])
+        {
+            for (final char element : (char[])array)
+            {
+                elementWriter.beginElement().append(element);
+                elementWriter.endElement();
+            }
+        }
+        else
+        {
+            for (final boolean element : (boolean[])array)
+            {
+                elementWriter.beginElement().append(element);
+                elementWriter.endElement();
+            }
+        }
+
+        elementWriter.finish();
+    }
+
+
+    @Override
+    protected int determineSize(final Object array)
+    {
+        return Array.getLength(array);
+    }
 }
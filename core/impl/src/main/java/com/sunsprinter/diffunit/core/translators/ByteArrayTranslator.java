@@ -0,0 +1,210 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+/**
+ * Translates byte arrays to a compact string, hexadecimal by default or base 64.  The encoded bytes are written straight
+ * to the output.  Long payloads can be broken into lines of a given length with {@link #breakLinesAfter(int)}, which
+ * keeps differences between them easy to read in a line by line comparison.<p/>
+ *
+ * To translate each byte as a number instead, bind an {@link ArrayTranslator} to <code>byte[]</code>.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class ByteArrayTranslator extends AbstractTranslator<byte[]>
+{
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final char[] BASE_64_DIGITS =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    private Encoding _encoding = Encoding.HEX;
+    private int _lineLength;
+
+
+    protected Encoding getEncoding()
+    {
+        return _encoding;
+    }
+
+
+    protected void setEncoding(final Encoding encoding)
+    {
+        _encoding = encoding;
+    }
+
+
+    /**
+     * Specifies how bytes are encoded.
+     *
+     * @param encoding The encoding.  May not be <code>null</code>.
+     *
+     * @return This translator, to facilitate call chaining.  Will never be <code>null</code>.
+     */
+    @SuppressWarnings("unchecked")
+    public <I extends ByteArrayTranslator> I encodeAs(final Encoding encoding)
+    {
+        setEncoding(encoding);
+        return (I)this;
+    }
+
+
+    protected int getLineLength()
+    {
+        return _lineLength;
+    }
+
+
+    protected void setLineLength(final int lineLength)
+    {
+        _lineLength = lineLength;
+    }
+
+
+    /**
+     * Specifies the number of characters after which the encoded bytes are broken onto a new line.
+     *
+     * @param lineLength The line length, or zero to keep the encoded bytes on one line.  Zero by default.
+     *
+     * @return This translator, to facilitate call chaining.  Will never be <code>null</code>.
+     */
+    @SuppressWarnings("unchecked")
+    public <I extends ByteArrayTranslator> I breakLinesAfter(final int lineLength)
+    {
+        setLineLength(lineLength);
+        return (I)this;
+    }
+
+
+    @Override
+    protected final String doTranslate(final byte[] bytes) throws TranslationException
+    {
+        final StringBuilder sb = new StringBuilder();
+        doTranslate(bytes, sb);
+        return sb.toString();
+    }
+
+
+    @Override
+    protected void doTranslate(final byte[] bytes, final StringBuilder sink) throws TranslationException
+    {
+        final int start = sink.length();
+        if (getEncoding() == Encoding.BASE_64)
+        {
+            appendBase64(bytes, sink);
+        }
+        else
+        {
+            appendHex(bytes, sink);
+        }
+
+        if (getLineLength() > 0)
+        {
+            breakLines(sink, start);
+        }
+    }
+
+
+    protected void appendHex(final byte[] bytes, final StringBuilder sink)
+    {
+        sink.ensureCapacity(sink.length() + bytes.length * 2);
+        for (final byte b : bytes)
+        {
+            sink.append(HEX_DIGITS[(b >> 4) & 0xf]).append(HEX_DIGITS[b & 0xf]);
+        }
+    }
+
+
+    /**
+     * Appends the bytes encoded as base 64, using the standard alphabet with padding (RFC 4648).
+     */
+    protected void appendBase64(final byte[] bytes, final StringBuilder sink)
+    {
+        sink.ensureCapacity(sink.length() + (bytes.length + 2) / 3 * 4);
+
+        int i = 0;
+        for (; i + 2 < bytes.length; i += 3)
+        {
+            final int group = (bytes[i] & 0xff) << 16 | (bytes[i + 1] & 0xff) << 8 | (bytes[i + 2] & 0xff);
+            sink.append(BASE_64_DIGITS[group >> 18])
+                .append(BASE_64_DIGITS[(group >> 12) & 0x3f])
+                .append(BASE_64_DIGITS[(group >> 6) & 0x3f])
+                .append(BASE_64_DIGITS[group & 0x3f]);
+        }
+
+        final int remaining = bytes.length - i;
+        if (remaining == 1)
+        {
+            final int group = (bytes[i] & 0xff) << 16;
+            sink.append(BASE_64_DIGITS[group >> 18]).append(BASE_64_DIGITS[(group >> 12) & 0x3f]).append("==");
+        }
+        else if (remaining == 2)
+        {
+            final int group = (bytes[i] & 0xff) << 16 | (bytes[i + 1] & 0xff) << 8;
+            sink.append(BASE_64_DIGITS[group >> 18])
+                .append(BASE_64_DIGITS[(group >> 12) & 0x3f])
+                .append(BASE_64_DIGITS[(group >> 6) & 0x3f])
+                .append('=');
+        }
+    }
+
+
+    /**
+     * Breaks the encoded bytes appended to the sink from the given position onto lines of the configured length.
+     */
+    protected void breakLines(final StringBuilder sink, final int start)
+    {
+        final int lineLength = getLineLength();
+        final int lineBreaks = (sink.length() - start - 1) / lineLength;
+        if (lineBreaks <= 0)
+        {
+            return;
+        }
+
+        // Spread the encoded characters out from the end so each one is moved only once.
+        int source = sink.length();
+        int target = source + lineBreaks;
+        sink.setLength(target);
+        for (int lineEnd = start + lineBreaks * lineLength; lineEnd > start; lineEnd -= lineLength)
+        {
+            while (source > lineEnd)
+            {
+                sink.setCharAt(--target, sink.charAt(--source));
+            }
+            sink.setCharAt(--target, '\n');
+        }
+    }
+
+
+    /**
+     * The ways in which bytes may be encoded.
+     */
+    public enum Encoding
+    {
+        /**
+         * Two lower case hexadecimal digits per byte.
+         */
+        HEX,
+
+        /**
+         * Base 64, using the standard alphabet with padding.
+         */
+        BASE_64
+    }
+}
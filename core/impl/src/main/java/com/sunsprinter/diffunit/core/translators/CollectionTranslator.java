@@ -34,4 +34,11 @@ public class CollectionTranslator<T extends Collection<Object>> extends Abstract
     {
         return object.iterator();
     }
+
+
+    @Override
+    protected int determineSize(final T object)
+    {
+        return object.size();
+    }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.apache.commons.lang3.SystemUtils;
+
+
+/**
+ * Writes indented XML, one element per line, from a stream of element and text events.  Each element goes on a line of
+ * its own, indented by four spaces for each level of nesting.  Text is trimmed and escaped and only kept if it comes
+ * before any child element.  An element whose start tag is followed directly by its end tag becomes an empty
+ * element.<p/>
+ *
+ * The output is exactly what the XML parser based pretty printer that this class replaces produced from the same
+ * elements and text, without building or parsing a document.  As the parser did, carriage returns in text are
+ * normalized to line feeds.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class IndentingXmlWriter
+{
+    /**
+     * Indicates that the previous event was the start of an element.
+     */
+    private static final int START = 1;
+
+    /**
+     * Indicates that the previous event was the end of an element.
+     */
+    private static final int END = 2;
+
+    /**
+     * Indicates that the previous event was the body (text) of an element.
+     */
+    private static final int BODY = 3;
+
+    /**
+     * The number of spaces to include for each indentation level.
+     */
+    private static final int INDENT_SIZE = 4;
+
+    /**
+     * The buffer the indented XML is appended to.
+     */
+    private final StringBuilder _sb;
+
+    /**
+     * The name of the current element, or <code>null</code> if the last element has ended.
+     */
+    private String _currentTag;
+
+    /**
+     * The current indentation level.
+     */
+    private int _indent;
+
+    /**
+     * The previous type of event that was received.
+     */
+    private int _previousType;
+
+
+    /**
+     * @param sb The buffer to append the indented XML to.  Will never be <code>null</code>.
+     */
+    public IndentingXmlWriter(final StringBuilder sb)
+    {
+        _sb = sb;
+    }
+
+
+    /**
+     * Starts an element.
+     *
+     * @param name          The element name.  Will never be <code>null</code>.
+     * @param attributeText The attributes, each preceded by a space, exactly as they are to be written.  Will never be
+     *                      <code>null</code>.
+     *
+     * @return The position in the buffer just after the element name, at which attributes can be inserted with {@link
+     *         #insertAttributes(int, String)} until the element ends.
+     */
+    public int startElement(final String name, final String attributeText)
+    {
+        // The line of the previous start tag is still open.  We now know it's not an empty element, so end the line.
+        if (_previousType == START || _previousType == BODY)
+        {
+            _sb.append(SystemUtils.LINE_SEPARATOR);
+        }
+
+        appendIndent();
+        _sb.append('<').append(name);
+        final int attributePosition = _sb.length();
+        _sb.append(attributeText).append('>');
+
+        _currentTag = name;
+        _previousType = START;
+        _indent++;
+
+        return attributePosition;
+    }
+
+
+    /**
+     * Inserts attributes into the start tag of an element that has not yet ended.
+     *
+     * @param attributePosition The position returned by {@link #startElement(String, String)} for the element.
+     * @param attributeText     The attributes, each preceded by a space.  Will never be <code>null</code>.
+     */
+    public void insertAttributes(final int attributePosition, final String attributeText)
+    {
+        _sb.insert(attributePosition, attributeText);
+    }
+
+
+    public void endElement(final String name)
+    {
+        _indent--;
+
+        if (_previousType == BODY)
+        {
+            // The start tag and text are on the current line, so the end tag goes there too.
+            _sb.append("</").append(name).append('>');
+        }
+        else if (_previousType == START)
+        {
+            // The start tag is immediately followed by this end tag, making it an empty element.
+            _sb.setLength(_sb.length() - 1);
+            _sb.append("/>");
+        }
+        else
+        {
+            // The previous element has ended, so this end tag goes on a line of its own.
+            appendIndent();
+            _sb.append("</").append(name).append('>');
+        }
+        _sb.append(SystemUtils.LINE_SEPARATOR);
+
+        _currentTag = null;
+        _previousType = END;
+    }
+
+
+    /**
+     * Writes text.  Text that comes after a child element of the current element is ignored.
+     *
+     * @param text The text, not escaped.  Will never be <code>null</code>.
+     */
+    public void characters(final String text)
+    {
+        if (_currentTag == null)
+        {
+            return;
+        }
+
+        // The code here is copied from @see java.lang.String.trim() and used to avoid creating new Strings just to
+        // remove whitespace.
+        int len = text.length();
+        int st = 0;
+        while ((st < len) && (text.charAt(st) <= ' '))
+        {
+            st++;
+        }
+        while ((st < len) && (text.charAt(len - 1) <= ' '))
+        {
+            len--;
+        }
+
+        String trimmed = text.substring(st, len);
+        if (trimmed.indexOf('\r') >= 0)
+        {
+            trimmed = trimmed.replace("\r\n", "\n").replace('\r', '\n');
+        }
+
+        _sb.append(StringEscapeUtils.escapeXml(trimmed));
+
+        _previousType = BODY;
+    }
+
+
+    private void appendIndent()
+    {
+        for (int i = 0; i < _indent * INDENT_SIZE; i++)
+        {
+            _sb.append(' ');
+        }
+    }
+}
@@ -17,50 +17,92 @@
 package com.sunsprinter.diffunit.core.translators;
 
 
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.SortedMap;
-import java.util.TreeMap;
 
 
 /**
- * MapTranslator
+ * Translates maps as a collection of {@link KeyValuePair}s, in key order.  Sorted maps are translated in their own order
+ * and, by default, linked hash maps in their insertion order, as both are already deterministic.  The entries of other
+ * maps are sorted with the key comparator.  With the default {@link ToStringKeyComparator} each key's string is
+ * computed once rather than on every comparison.  Keys are sorted by index with a stable merge sort, so keys that
+ * compare equal keep their own values.  Key value pairs are only created as the translation reaches them.
  *
  * @author Kevan Dunsmore
  * @created 2012/06/03
  */
 public class MapTranslator<T extends Map<Object, Object>> extends AbstractCollectionTranslator<T>
 {
+    /**
+     * Runs of up to this many indices are sorted by insertion sort before being merged.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
     private Comparator<Object> _keyComparator = new ToStringKeyComparator();
+    private boolean _preserveInsertionOrder = true;
 
 
-    @SuppressWarnings("unchecked")
     @Override
-    protected Iterator<Object> convertToIterator(T map) throws TranslationException
+    protected Iterator<Object> convertToIterator(final T map) throws TranslationException
     {
-        final Map sortedMap;
-        if (map instanceof SortedMap)
-        {
-            sortedMap = map;
-        }
-        else
+        if (map instanceof SortedMap || (map instanceof LinkedHashMap && getPreserveInsertionOrder()))
         {
-            // We have to impose some sorting strategy on the map keys.
-            sortedMap = new TreeMap<Object, Object>(getKeyComparator());
-            sortedMap.putAll(map);
+            return new EntryIterator(map.entrySet().iterator());
         }
 
-        // Now shove everything in a collection and return the iterator for it to the superclass.
-        final Collection<Object> kvpCollection = new LinkedList<Object>();
-        for (final Object key : map.keySet())
+        // Concurrent maps may change size while we copy them, so we stop copying at the size we started with.
+        final int size = map.size();
+        final Object[] keys = new Object[size];
+        final Object[] values = new Object[size];
+        int count = 0;
+        final Iterator<Map.Entry<Object, Object>> entries = map.entrySet().iterator();
+        while (count < size && entries.hasNext())
         {
-            kvpCollection.add(createKeyValuePair(key, sortedMap.get(key)));
+            final Map.Entry<Object, Object> entry = entries.next();
+            keys[count] = entry.getKey();
+            values[count] = entry.getValue();
+            count++;
         }
 
-        return kvpCollection.iterator();
+        return new IndexedIterator(keys, values, sortIndices(count, createIndexOrder(keys)));
+    }
+
+
+    @Override
+    protected int determineSize(final T map)
+    {
+        return map.size();
+    }
+
+
+    protected boolean getPreserveInsertionOrder()
+    {
+        return _preserveInsertionOrder;
+    }
+
+
+    protected void setPreserveInsertionOrder(final boolean preserveInsertionOrder)
+    {
+        _preserveInsertionOrder = preserveInsertionOrder;
+    }
+
+
+    /**
+     * Specifies whether linked hash maps are translated in their own order rather than being sorted by key.
+     *
+     * @param preserve <code>true</code> to keep their own order.  <code>true</code> by default.
+     *
+     * @return This translator, to facilitate call chaining.  Will never be <code>null</code>.
+     */
+    @SuppressWarnings("unchecked")
+    public <I extends MapTranslator<T>> I preserveInsertionOrder(final boolean preserve)
+    {
+        setPreserveInsertionOrder(preserve);
+        return (I)this;
     }
 
 
@@ -84,6 +126,132 @@ public class MapTranslator<T extends Map<Object, Object>> extends AbstractCollec
     }
 
 
+    /**
+     * Creates the order in which the keys are to be sorted.  Keys compared by the default {@link
+     * ToStringKeyComparator} are decorated with their strings first, so that {@link Object#toString()} is called once
+     * per key.
+     *
+     * @param keys The keys.  Will never be <code>null</code>.
+     *
+     * @return The order.  Will never be <code>null</code>.
+     */
+    protected IndexOrder createIndexOrder(final Object[] keys)
+    {
+        final Comparator<Object> keyComparator = getKeyComparator();
+        if (keyComparator.getClass() != ToStringKeyComparator.class)
+        {
+            return new IndexOrder()
+            {
+                @Override
+                public int compare(final int index1, final int index2)
+                {
+                    return keyComparator.compare(keys[index1], keys[index2]);
+                }
+            };
+        }
+
+        final String[] sortKeys = new String[keys.length];
+        for (int i = 0; i < keys.length; i++)
+        {
+            sortKeys[i] = keys[i] == null ? null : keys[i].toString();
+        }
+
+        return new IndexOrder()
+        {
+            @Override
+            public int compare(final int index1, final int index2)
+            {
+                final String sortKey1 = sortKeys[index1];
+                final String sortKey2 = sortKeys[index2];
+                if (sortKey1 == null || sortKey2 == null)
+                {
+                    return sortKey1 == null ? (sortKey2 == null ? 0 : -1) : 1;
+                }
+                return sortKey1.compareTo(sortKey2);
+            }
+        };
+    }
+
+
+    /**
+     * Sorts the indices <code>0</code> to <code>count - 1</code> in the given order with a stable merge sort.
+     *
+     * @param count The number of indices.
+     * @param order The order.  Will never be <code>null</code>.
+     *
+     * @return The sorted indices.  Will never be <code>null</code>.
+     */
+    protected int[] sortIndices(final int count, final IndexOrder order)
+    {
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++)
+        {
+            indices[i] = i;
+        }
+
+        // Sort short runs in place, then merge runs of doubling width back and forth between the two arrays.
+        for (int runStart = 0; runStart < count; runStart += INSERTION_SORT_THRESHOLD)
+        {
+            insertionSort(indices, runStart, Math.min(runStart + INSERTION_SORT_THRESHOLD, count), order);
+        }
+
+        int[] merged = new int[count];
+        for (int width = INSERTION_SORT_THRESHOLD; width < count; width *= 2)
+        {
+            for (int left = 0; left < count; left += width * 2)
+            {
+                merge(indices, merged, left, Math.min(left + width, count), Math.min(left + width * 2, count), order);
+            }
+
+            final int[] swap = indices;
+            indices = merged;
+            merged = swap;
+        }
+
+        return indices;
+    }
+
+
+    private static void insertionSort(final int[] indices, final int from, final int to, final IndexOrder order)
+    {
+        for (int i = from + 1; i < to; i++)
+        {
+            final int index = indices[i];
+            int j = i - 1;
+            while (j >= from && order.compare(indices[j], index) > 0)
+            {
+                indices[j + 1] = indices[j];
+                j--;
+            }
+            indices[j + 1] = index;
+        }
+    }
+
+
+    private static void merge(final int[] source,
+                              final int[] target,
+                              final int left,
+                              final int middle,
+                              final int right,
+                              final IndexOrder order)
+    {
+        int i = left;
+        int j = middle;
+        for (int k = left; k < right; k++)
+        {
+            // Taking from the left run on ties keeps the sort stable.
+            if (i < middle && (j >= right || order.compare(source[i], source[j]) <= 0))
+            {
+                target[k] = source[i++];
+            }
+            else
+            {
+                target[k] = source[j++];
+            }
+        }
+    }
+
+
     public static class ToStringKeyComparator implements Comparator<Object>
     {
         @Override
@@ -143,4 +311,97 @@ public class MapTranslator<T extends Map<Object, Object>> extends AbstractCollec
             _value = value;
         }
     }
+
+
+    /**
+     * An order over the indices of the keys being sorted.
+     */
+    protected interface IndexOrder
+    {
+        int compare(int index1, int index2);
+    }
+
+
+    /**
+     * Iterates over the entries of a map, creating each key value pair as it's reached.
+     */
+    protected class EntryIterator implements Iterator<Object>
+    {
+        private final Iterator<Map.Entry<Object, Object>> _entries;
+
+
+        public EntryIterator(final Iterator<Map.Entry<Object, Object>> entries)
+        {
+            _entries = entries;
+        }
+
+
+        @Override
+        public boolean hasNext()
+        {
+            return _entries.hasNext();
+        }
+
+
+        @Override
+        public Object next()
+        {
+            final Map.Entry<Object, Object> entry = _entries.next();
+            return createKeyValuePair(entry.getKey(), entry.getValue());
+        }
+
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+
+    /**
+     * Iterates over keys and values in the order of the sorted indices, creating each key value pair as it's reached.
+     */
+    protected class IndexedIterator implements Iterator<Object>
+    {
+        private final Object[] _keys;
+        private final Object[] _values;
+        private final int[] _indices;
+        private int _position;
+
+
+        public IndexedIterator(final Object[] keys, final Object[] values, final int[] indices)
+        {
+            _keys = keys;
+            _values = values;
+            _indices = indices;
+        }
+
+
+        @Override
+        public boolean hasNext()
+        {
+            return _position < _indices.length;
+        }
+
+
+        @Override
+        public Object next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+
+            final int index = _indices[_position++];
+            return createKeyValuePair(_keys[index], _values[index]);
+        }
+
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
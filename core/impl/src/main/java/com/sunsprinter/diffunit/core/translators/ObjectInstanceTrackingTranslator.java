@@ -39,8 +39,17 @@ import com.sunsprinter.diffunit.core.instancetracking.IObjectInstanceTracker;
 public class ObjectInstanceTrackingTranslator extends AbstractDelegatingTranslator<Object>
 {
     @Override
-    protected synchronized String doTranslate(final Object object) throws TranslationException
+    protected final String doTranslate(final Object object) throws TranslationException
     {
-        return getDelegateTranslator().translate(getInstanceTracker().getObjectId(object));
+        final StringBuilder sb = new StringBuilder();
+        doTranslate(object, sb);
+        return sb.toString();
+    }
+
+
+    @Override
+    protected void doTranslate(final Object object, final StringBuilder sink) throws TranslationException
+    {
+        appendTranslation(getDelegateTranslator(), getInstanceTracker().getObjectId(object), sink);
     }
 }
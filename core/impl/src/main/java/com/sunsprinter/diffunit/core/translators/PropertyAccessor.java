@@ -0,0 +1,114 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+
+/**
+ * Reads the value of one property from objects of a specific class.  Created once per property per class by {@link
+ * AbstractPropertyDrivenTranslator} and reused for every object of that class translated.<p/>
+ *
+ * The property's read method is converted to a {@link MethodHandle} typed <code>(Object)Object</code> when the accessor
+ * is created, so reading a property involves no reflective access checks and no argument array.  Read methods that
+ * can't be looked up publicly (for example public methods of non-public classes) are invoked reflectively instead.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class PropertyAccessor
+{
+    private static final MethodType READ_METHOD_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final PropertyDescriptor _propertyDescriptor;
+    private final Method _readMethod;
+    private final MethodHandle _readMethodHandle;
+
+
+    public PropertyAccessor(final PropertyDescriptor propertyDescriptor)
+    {
+        _propertyDescriptor = propertyDescriptor;
+        _readMethod = propertyDescriptor.getReadMethod();
+        _readMethodHandle = createReadMethodHandle(_readMethod);
+    }
+
+
+    public String getName()
+    {
+        return _propertyDescriptor.getName();
+    }
+
+
+    public PropertyDescriptor getPropertyDescriptor()
+    {
+        return _propertyDescriptor;
+    }
+
+
+    /**
+     * Reads the property's value.
+     *
+     * @param object The object whose property is read.  May not be <code>null</code>.
+     *
+     * @return The property value.  May be <code>null</code>.
+     *
+     * @throws Exception If the property's read method can't be called.  Anything thrown by the read method itself is
+     *                   wrapped in an {@link InvocationTargetException}, just as {@link Method#invoke} would wrap it.
+     */
+    public Object read(final Object object) throws Exception
+    {
+        if (_readMethodHandle == null)
+        {
+            return _readMethod.invoke(object);
+        }
+
+        try
+        {
+            return (Object)_readMethodHandle.invokeExact(object);
+        }
+        catch (final Throwable t)
+        {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+
+    /**
+     * Creates a method handle for the read method, adapted to take and return {@link Object}.
+     *
+     * @param readMethod The read method.  Will never be <code>null</code>.
+     *
+     * @return The method handle, or <code>null</code> if the read method isn't publicly accessible.
+     */
+    protected static MethodHandle createReadMethodHandle(final Method readMethod)
+    {
+        try
+        {
+            return MethodHandles.publicLookup().unreflect(readMethod).asType(READ_METHOD_TYPE);
+        }
+        catch (final IllegalAccessException e)
+        {
+            return null;
+        }
+    }
+}
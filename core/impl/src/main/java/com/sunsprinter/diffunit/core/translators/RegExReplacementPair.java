@@ -17,6 +17,11 @@
 package com.sunsprinter.diffunit.core.translators;
 
 
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+
 /**
  * RegExReplacementPair
  *
@@ -28,6 +33,11 @@ public class RegExReplacementPair implements IRegExReplacementPair
     private String _regEx;
     private ITranslator<String> _translator;
 
+    /**
+     * The compiled regular expression.  Compiled on first use.
+     */
+    private volatile Pattern _pattern;
+
 
     public RegExReplacementPair(final String regEx)
     {
@@ -64,6 +74,7 @@ public class RegExReplacementPair implements IRegExReplacementPair
     protected void setRegEx(final String regEx)
     {
         _regEx = regEx;
+        _pattern = null;
     }
 
 
@@ -74,6 +85,33 @@ public class RegExReplacementPair implements IRegExReplacementPair
     }
 
 
+    @Override
+    public Pattern getPattern()
+    {
+        Pattern pattern = _pattern;
+        if (pattern == null)
+        {
+            pattern = Pattern.compile(getRegExp());
+            _pattern = pattern;
+        }
+
+        return pattern;
+    }
+
+
+    /**
+     * Returns the regular expression itself if it has no special characters, otherwise <code>null</code>, meaning
+     * every string is matched against the pattern.  Subclasses whose patterns always match some fixed text should
+     * override this method to return it.
+     */
+    @Override
+    public String getRequiredLiteral()
+    {
+        final String regExp = getRegExp();
+        return regExp.length() == 0 || StringUtils.containsAny(regExp, "\\^$.|?*+()[]{}") ? null : regExp;
+    }
+
+
     protected void setTranslator(final ITranslator<String> translator)
     {
         _translator = translator;
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+/**
+ * Decorates the root translator so that every translation has regular expression replacements applied to it by a
+ * {@link RegExReplacer}.  Calls are passed straight to the decorated translator.  Only the results of {@link
+ * #translate(Object)} and {@link #translate(Object, StringBuilder)} are changed.  When appending, the decorated
+ * translator appends to the sink and the replacements are applied to the text it appended.<p/>
+ *
+ * The decorator is its own proxy, so it can be used wherever a {@link RegExReplacementTranslatorDecorator} of the root
+ * translator was.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class RegExReplacementRootTranslatorDecorator extends RegExReplacementTranslatorDecorator<IRootTranslator>
+        implements IRootTranslator, IAppendingTranslator<Object>
+{
+    public RegExReplacementRootTranslatorDecorator(final IRootTranslator delegate)
+    {
+        setDelegate(delegate);
+        setProxy(this);
+    }
+
+
+    @Override
+    protected IRootTranslator getDelegate()
+    {
+        return (IRootTranslator)super.getDelegate();
+    }
+
+
+    @Override
+    public String translate(final Object object) throws TranslationException
+    {
+        return getReplacer().replace(getDelegate().translate(object));
+    }
+
+
+    @Override
+    public void translate(final Object object, final StringBuilder sink) throws TranslationException
+    {
+        final int start = sink.length();
+        AbstractTranslator.appendTranslation(getDelegate(), object, sink);
+
+        if (getReplacementPairs().isEmpty())
+        {
+            return;
+        }
+
+        // The replacer hands back the same string when nothing matched, in which case the sink is already correct.
+        final String translation = sink.substring(start);
+        final String replaced = getReplacer().replace(translation);
+        if (replaced != translation)
+        {
+            sink.setLength(start);
+            sink.append(replaced);
+        }
+    }
+
+
+    @Override
+    public void bind(final ITranslator<?> translator, final Class<?>... types)
+    {
+        getDelegate().bind(translator, types);
+    }
+}
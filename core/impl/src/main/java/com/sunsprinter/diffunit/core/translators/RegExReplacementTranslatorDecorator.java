@@ -21,17 +21,16 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.sunsprinter.diffunit.core.common.AbstractTestingContextUser;
 
 
 /**
- * RegExReplacementTranslatorDecorator
+ * Decorates any translator, through a dynamic proxy implementing the translator's interfaces, so that the strings its
+ * <code>translate</code> method produces have regular expression replacements applied to them by a {@link
+ * RegExReplacer}.  The root translator is decorated by the statically typed {@link
+ * RegExReplacementRootTranslatorDecorator} instead.
  *
  * @author Kevan Dunsmore
  * @created 2011/11/14
@@ -40,7 +39,15 @@ public class RegExReplacementTranslatorDecorator<T extends ITranslator> extends
 {
     private ITranslator _delegate;
     private T _proxy;
-    private List<IRegExReplacementPair> _replacementPairs = createReplacementPairsCollection();
+    private final RegExReplacer _replacer = createRegExReplacer();
+
+
+    /**
+     * Creates a decorator with no delegate and no proxy, for subclasses that set both themselves.
+     */
+    protected RegExReplacementTranslatorDecorator()
+    {
+    }
 
 
     @SuppressWarnings("unchecked")
@@ -55,19 +62,25 @@ public class RegExReplacementTranslatorDecorator<T extends ITranslator> extends
 
     public List<IRegExReplacementPair> getReplacementPairs()
     {
-        return _replacementPairs;
+        return getReplacer().getReplacementPairs();
     }
 
 
     public void setReplacementPairs(final List<IRegExReplacementPair> replacementPairs)
     {
-        _replacementPairs = replacementPairs;
+        getReplacer().setReplacementPairs(replacementPairs);
+    }
+
+
+    protected RegExReplacer getReplacer()
+    {
+        return _replacer;
     }
 
 
-    protected List<IRegExReplacementPair> createReplacementPairsCollection()
+    protected RegExReplacer createRegExReplacer()
     {
-        return new LinkedList<IRegExReplacementPair>();
+        return new RegExReplacer();
     }
 
 
@@ -95,6 +108,14 @@ public class RegExReplacementTranslatorDecorator<T extends ITranslator> extends
     }
 
 
+    @SuppressWarnings("unchecked")
+    public <I extends RegExReplacementTranslatorDecorator<T>> I fuseReplacementPairs(final boolean fuse)
+    {
+        getReplacer().setFuseReplacementPairs(fuse);
+        return (I)this;
+    }
+
+
     @SuppressWarnings("unchecked")
     public <I extends RegExReplacementTranslatorDecorator<T>> I add(final IRegExReplacementPair... replacementPairs)
     {
@@ -114,31 +135,7 @@ public class RegExReplacementTranslatorDecorator<T extends ITranslator> extends
             method.getParameterTypes().length == 1 &&
             method.getParameterTypes()[0].equals(Object.class))
         {
-            String updatedRetVal = (String)retVal;
-
-            // Go through all replacement pairs and replace matching blocks.
-            for (final IRegExReplacementPair pair : getReplacementPairs())
-            {
-                final Pattern pattern = Pattern.compile(pair.getRegExp());
-                final Matcher matcher = pattern.matcher(updatedRetVal);
-
-                final StringBuffer sb = new StringBuffer();
-
-                while (matcher.find())
-                {
-                    // Get the matched text.
-                    final String matched = updatedRetVal.substring(matcher.start(), matcher.end());
-
-                    // Get translate the replacement object into a string then use it to replace the matched string.
-                    final String replacement = pair.getTranslator().translate(matched);
-                    matcher.appendReplacement(sb, replacement);
-                }
-                matcher.appendTail(sb);
-
-                updatedRetVal = sb.toString();
-            }
-
-            retVal = updatedRetVal;
+            retVal = getReplacer().replace((String)retVal);
         }
 
         return retVal;
@@ -0,0 +1,476 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Applies regular expression replacements to strings.  Each replacement pair is applied in turn to the result of the
+ * previous one.  Patterns are compiled once, by the pairs themselves, and pairs whose required literal (see {@link
+ * IRegExReplacementPair#getRequiredLiteral()}) doesn't appear in the string are skipped without running their
+ * patterns.<p/>
+ *
+ * Optionally (see {@link #setFuseReplacementPairs(boolean)}) consecutive pairs are combined into a single alternation so
+ * the string is scanned once for all of them.  Fused pairs all see the original string rather than the result of the
+ * pairs before them, and where matches of different pairs overlap the earliest match wins.  Pairs whose patterns use
+ * back references, named groups or compilation flags are never fused.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class RegExReplacer
+{
+    private List<IRegExReplacementPair> _replacementPairs = createReplacementPairsCollection();
+    private boolean _fuseReplacementPairs;
+
+    /**
+     * The stages built for the replacement pairs last seen.  Rebuilt whenever the pairs change.
+     */
+    private volatile ReplacementPlan _replacementPlan;
+
+
+    public List<IRegExReplacementPair> getReplacementPairs()
+    {
+        return _replacementPairs;
+    }
+
+
+    public void setReplacementPairs(final List<IRegExReplacementPair> replacementPairs)
+    {
+        _replacementPairs = replacementPairs;
+    }
+
+
+    protected List<IRegExReplacementPair> createReplacementPairsCollection()
+    {
+        return new LinkedList<IRegExReplacementPair>();
+    }
+
+
+    public boolean getFuseReplacementPairs()
+    {
+        return _fuseReplacementPairs;
+    }
+
+
+    public void setFuseReplacementPairs(final boolean fuseReplacementPairs)
+    {
+        _fuseReplacementPairs = fuseReplacementPairs;
+        _replacementPlan = null;
+    }
+
+
+    /**
+     * Applies all replacement pairs to the text.
+     *
+     * @param text The text.  May be <code>null</code>.
+     *
+     * @return The text with all replacements made, or <code>null</code> if the text is <code>null</code>.
+     *
+     * @throws TranslationException If a replacement pair's translator fails.
+     */
+    public String replace(final String text) throws TranslationException
+    {
+        if (text == null)
+        {
+            return null;
+        }
+
+        // Go through all replacement stages and replace matching blocks.
+        String updatedText = text;
+        for (final ReplacementStage stage : getReplacementPlan().getStages())
+        {
+            updatedText = stage.apply(updatedText);
+        }
+
+        return updatedText;
+    }
+
+
+    /**
+     * Returns the replacement stages for the current replacement pairs.  The pairs list may be changed at any time, so
+     * the plan remembers the pairs it was built for and is rebuilt if they differ.
+     */
+    protected ReplacementPlan getReplacementPlan()
+    {
+        ReplacementPlan replacementPlan = _replacementPlan;
+        if (replacementPlan == null || !replacementPlan.getReplacementPairs().equals(getReplacementPairs()))
+        {
+            replacementPlan = createReplacementPlan(new ArrayList<IRegExReplacementPair>(getReplacementPairs()));
+            _replacementPlan = replacementPlan;
+        }
+
+        return replacementPlan;
+    }
+
+
+    protected ReplacementPlan createReplacementPlan(final List<IRegExReplacementPair> replacementPairs)
+    {
+        final List<ReplacementStage> stages = new ArrayList<ReplacementStage>();
+
+        if (getFuseReplacementPairs())
+        {
+            // Fuse each run of consecutive fusable pairs.  Pairs that can't be fused get a stage of their own.
+            final List<IRegExReplacementPair> run = new ArrayList<IRegExReplacementPair>();
+            for (final IRegExReplacementPair pair : replacementPairs)
+            {
+                if (isFusable(pair))
+                {
+                    run.add(pair);
+                }
+                else
+                {
+                    addStage(stages, run);
+                    run.clear();
+                    stages.add(new ReplacementStage(pair));
+                }
+            }
+            addStage(stages, run);
+        }
+        else
+        {
+            for (final IRegExReplacementPair pair : replacementPairs)
+            {
+                stages.add(new ReplacementStage(pair));
+            }
+        }
+
+        return new ReplacementPlan(replacementPairs, stages);
+    }
+
+
+    private void addStage(final List<ReplacementStage> stages, final List<IRegExReplacementPair> pairs)
+    {
+        if (pairs.size() == 1)
+        {
+            stages.add(new ReplacementStage(pairs.get(0)));
+        }
+        else if (!pairs.isEmpty())
+        {
+            stages.add(new ReplacementStage(pairs));
+        }
+    }
+
+
+    /**
+     * Determines whether a pair's pattern keeps its meaning inside a larger alternation.  Back references and named
+     * groups depend on the pattern's own group numbering and names, and compilation flags can't be expressed per
+     * alternative.
+     */
+    protected boolean isFusable(final IRegExReplacementPair pair)
+    {
+        final Pattern pattern = getPattern(pair);
+        if (pattern.flags() != 0)
+        {
+            return false;
+        }
+
+        final String regExp = pattern.pattern();
+        for (int i = 0; i < regExp.length() - 1; i++)
+        {
+            final char c = regExp.charAt(i);
+            final char next = regExp.charAt(i + 1);
+            if (c == '\\')
+            {
+                if ((next >= '1' && next <= '9') || next == 'k')
+                {
+                    return false;
+                }
+
+                // Skip the escaped character.
+                i++;
+            }
+            else if (c == '(' && next == '?' && i + 3 < regExp.length() &&
+                     regExp.charAt(i + 2) == '<' && Character.isLetter(regExp.charAt(i + 3)))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Returns a pair's pattern.  Pairs written before {@link IRegExReplacementPair#getPattern()} was added may return
+     * <code>null</code>, in which case their regular expression is compiled here.
+     */
+    protected static Pattern getPattern(final IRegExReplacementPair pair)
+    {
+        final Pattern pattern = pair.getPattern();
+        return pattern == null ? Pattern.compile(pair.getRegExp()) : pattern;
+    }
+
+
+    /**
+     * The replacement stages built for a particular list of replacement pairs.
+     */
+    protected static class ReplacementPlan
+    {
+        private final List<IRegExReplacementPair> _replacementPairs;
+        private final List<ReplacementStage> _stages;
+
+
+        public ReplacementPlan(final List<IRegExReplacementPair> replacementPairs, final List<ReplacementStage> stages)
+        {
+            _replacementPairs = replacementPairs;
+            _stages = stages;
+        }
+
+
+        public List<IRegExReplacementPair> getReplacementPairs()
+        {
+            return _replacementPairs;
+        }
+
+
+        public List<ReplacementStage> getStages()
+        {
+            return _stages;
+        }
+    }
+
+
+    /**
+     * One scan of a string that replaces the matches of one or more replacement pairs.  When there are several pairs
+     * each pair's pattern is wrapped in a capturing group and the groups are joined into one alternation.  The group
+     * that took part in a match identifies the pair, and group references in the pair's replacement are shifted to
+     * that pair's groups.  Replacements are then made by {@link Matcher#appendReplacement(StringBuffer, String)}.
+     */
+    protected static class ReplacementStage
+    {
+        private final Pattern _pattern;
+        private final IRegExReplacementPair[] _pairs;
+
+        /**
+         * The number of the group that holds the whole match of each pair.  Zero when the stage has a single pair.
+         */
+        private final int[] _pairGroups;
+
+        /**
+         * The number of groups in each pair's own pattern.
+         */
+        private final int[] _pairGroupCounts;
+
+        /**
+         * The literals required by the pairs, or <code>null</code> if any pair has no required literal.
+         */
+        private final String[] _requiredLiterals;
+
+
+        public ReplacementStage(final IRegExReplacementPair pair)
+        {
+            _pattern = getPattern(pair);
+            _pairs = new IRegExReplacementPair[]{pair};
+            _pairGroups = new int[]{0};
+            _pairGroupCounts = new int[]{_pattern.matcher("").groupCount()};
+            _requiredLiterals = pair.getRequiredLiteral() == null ? null : new String[]{pair.getRequiredLiteral()};
+        }
+
+
+        public ReplacementStage(final List<IRegExReplacementPair> pairs)
+        {
+            _pairs = pairs.toArray(new IRegExReplacementPair[pairs.size()]);
+            _pairGroups = new int[_pairs.length];
+            _pairGroupCounts = new int[_pairs.length];
+
+            final StringBuilder regExp = new StringBuilder();
+            String[] requiredLiterals = new String[_pairs.length];
+            int group = 1;
+            for (int i = 0; i < _pairs.length; i++)
+            {
+                if (i != 0)
+                {
+                    regExp.append('|');
+                }
+                final Pattern pattern = getPattern(_pairs[i]);
+                regExp.append('(').append(pattern.pattern()).append(')');
+
+                _pairGroups[i] = group;
+                _pairGroupCounts[i] = pattern.matcher("").groupCount();
+                group += _pairGroupCounts[i] + 1;
+
+                if (requiredLiterals != null)
+                {
+                    requiredLiterals[i] = _pairs[i].getRequiredLiteral();
+                    if (requiredLiterals[i] == null)
+                    {
+                        requiredLiterals = null;
+                    }
+                }
+            }
+
+            _pattern = Pattern.compile(regExp.toString());
+            _requiredLiterals = requiredLiterals;
+        }
+
+
+        /**
+         * Replaces every match in the text.
+         *
+         * @param text The text.  May not be <code>null</code>.
+         *
+         * @return The text with the replacements made.  The same instance as <code>text</code> if nothing matched.
+         *
+         * @throws TranslationException If a pair's translator fails.
+         */
+        public String apply(final String text) throws TranslationException
+        {
+            if (!mayMatch(text))
+            {
+                return text;
+            }
+
+            final Matcher matcher = _pattern.matcher(text);
+            if (!matcher.find())
+            {
+                return text;
+            }
+
+            final StringBuffer sb = new StringBuffer(text.length() + 16);
+            do
+            {
+                int pairIndex = 0;
+                while (matcher.start(_pairGroups[pairIndex]) == -1)
+                {
+                    pairIndex++;
+                }
+
+                // Translate the matched text into a string then use it to replace the matched text.
+                final String replacement = _pairs[pairIndex].getTranslator().translate(matcher.group());
+                matcher.appendReplacement(sb, _pairs.length == 1 ? replacement : shiftGroupReferences(
+                        replacement, _pairGroups[pairIndex], _pairGroupCounts[pairIndex]));
+            }
+            while (matcher.find());
+            matcher.appendTail(sb);
+
+            return sb.toString();
+        }
+
+
+        protected boolean mayMatch(final String text)
+        {
+            if (_requiredLiterals == null)
+            {
+                return true;
+            }
+
+            for (final String requiredLiteral : _requiredLiterals)
+            {
+                if (text.contains(requiredLiteral))
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+
+        /**
+         * Rewrites a pair's replacement for the fused pattern.  <code>$n</code> refers to group <code>n</code> of the
+         * pair's own pattern, following the rules of {@link Matcher#appendReplacement(StringBuffer, String)}, and is
+         * shifted to the matching group of the fused pattern.  Everything else is escaped so that it's copied as it
+         * would have been.  Fused pairs have no named groups, so a <code>${name}</code> reference is rejected just as
+         * the pair's own matcher would reject it.
+         */
+        protected static String shiftGroupReferences(final String replacement,
+                                                     final int groupOffset,
+                                                     final int groupCount)
+        {
+            final StringBuilder sb = new StringBuilder(replacement.length() + 8);
+            int i = 0;
+            while (i < replacement.length())
+            {
+                char c = replacement.charAt(i);
+                if (c == '\\')
+                {
+                    i++;
+                    if (i == replacement.length())
+                    {
+                        throw new IllegalArgumentException("character to be escaped is missing");
+                    }
+                    sb.append('\\').append(replacement.charAt(i));
+                    i++;
+                }
+                else if (c == '$')
+                {
+                    i++;
+                    if (i == replacement.length())
+                    {
+                        throw new IllegalArgumentException("Illegal group reference: group index is missing");
+                    }
+                    c = replacement.charAt(i);
+                    if (c == '{')
+                    {
+                        final int end = replacement.indexOf('}', i);
+                        throw new IllegalArgumentException(
+                                end == -1 ? "named capturing group is missing trailing '}'"
+                                          : "No group with name " + replacement.substring(i, end + 1));
+                    }
+                    if (c < '0' || c > '9')
+                    {
+                        throw new IllegalArgumentException("Illegal group reference");
+                    }
+
+                    // The first digit is always part of the reference.  Later digits are only if the result is a group.
+                    int group = c - '0';
+                    if (group > groupCount)
+                    {
+                        throw new IndexOutOfBoundsException("No group " + group);
+                    }
+                    i++;
+                    while (i < replacement.length())
+                    {
+                        c = replacement.charAt(i);
+                        if (c < '0' || c > '9')
+                        {
+                            break;
+                        }
+                        final int longerGroup = group * 10 + c - '0';
+                        if (longerGroup > groupCount)
+                        {
+                            break;
+                        }
+                        group = longerGroup;
+                        i++;
+                    }
+
+                    // Literal digits are escaped below, so they can't run on into the shifted number.
+                    sb.append('$').append(groupOffset + group);
+                }
+                else
+                {
+                    if (c >= '0' && c <= '9')
+                    {
+                        sb.append('\\');
+                    }
+                    sb.append(c);
+                    i++;
+                }
+            }
+
+            return sb.toString();
+        }
+    }
+}
@@ -47,4 +47,14 @@ public class StackTraceReplacementPair extends RegExReplacementPair
     {
         super(REG_EX, translator);
     }
+
+
+    /**
+     * Every line of a stack trace starts with a tab followed by <code>at</code>.
+     */
+    @Override
+    public String getRequiredLiteral()
+    {
+        return REG_EX.equals(getRegExp()) ? "\tat" : super.getRequiredLiteral();
+    }
 }
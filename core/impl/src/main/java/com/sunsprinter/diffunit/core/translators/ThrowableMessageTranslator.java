@@ -17,8 +17,7 @@
 package com.sunsprinter.diffunit.core.translators;
 
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintWriter;
+import org.apache.commons.lang3.SystemUtils;
 
 
 /**
@@ -53,12 +52,18 @@ public class ThrowableMessageTranslator<T extends Throwable> extends AbstractTra
 
 
     @Override
-    protected String doTranslate(final T throwable) throws TranslationException
+    protected final String doTranslate(final T throwable) throws TranslationException
     {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        final PrintWriter pw = new PrintWriter(baos);
+        final StringBuilder sb = new StringBuilder();
+        doTranslate(throwable, sb);
+        return sb.toString();
+    }
 
-        pw.print(translateSingle(throwable));
+
+    @Override
+    protected void doTranslate(final T throwable, final StringBuilder sink) throws TranslationException
+    {
+        translateSingle(throwable, sink);
 
         if (getIncludeCause())
         {
@@ -66,20 +71,18 @@ public class ThrowableMessageTranslator<T extends Throwable> extends AbstractTra
             Throwable current = throwable.getCause();
             while (current != null)
             {
-                pw.println();
-                pw.print(String.format("%scaused by %s", indent, translateSingle(current)));
+                sink.append(SystemUtils.LINE_SEPARATOR).append(indent).append("caused by ");
+                translateSingle(current, sink);
                 indent += indent;
                 current = current.getCause();
             }
         }
-
-        pw.flush();
-        return baos.toString();
     }
 
 
-    protected String translateSingle(final Throwable throwable)
+    protected void translateSingle(final Throwable throwable, final StringBuilder sink)
     {
-        return String.format("%s(message=%s)", getTestingContext().getInstanceTracker().getObjectId(throwable), throwable.getMessage());
+        sink.append(getInstanceTracker().getObjectId(throwable));
+        sink.append("(message=").append(throwable.getMessage()).append(')');
     }
 }
@@ -17,9 +17,6 @@
 package com.sunsprinter.diffunit.core.translators;
 
 
-import java.beans.PropertyDescriptor;
-import java.util.Collection;
-
 import org.apache.commons.lang3.StringEscapeUtils;
 
 
@@ -38,6 +35,11 @@ import org.apache.commons.lang3.StringEscapeUtils;
  */
 public class ToXmlTranslator<T> extends AbstractPropertyDrivenTranslator<T>
 {
+    /**
+     * The indented element writer, if any, whose property value is being translated on the current thread.
+     */
+    private static final ThreadLocal<IndentedElementWriter> NESTED_VALUE_WRITER = new ThreadLocal<IndentedElementWriter>();
+
     private boolean _includeEnclosingElement = true;
     private boolean _includeOuterElementInstanceNumber;
     private boolean _includeInnerElementInstanceNumber;
@@ -125,40 +127,86 @@ public class ToXmlTranslator<T> extends AbstractPropertyDrivenTranslator<T>
 
 
     @Override
-    protected String doTranslate(final T object) throws TranslationException
+    protected final String doTranslate(final T object) throws TranslationException
+    {
+        final StringBuilder sb = new StringBuilder();
+        doTranslate(object, sb);
+        return sb.toString();
+    }
+
+
+    /**
+     * Appends the XML for an object to the sink, with each property value translated straight into the sink by the
+     * delegate translator.  If the sink is the buffer a pretty XML translator is translating a property value into,
+     * the elements are written straight into that translator's indented output instead.
+     */
+    @Override
+    protected void doTranslate(final T object, final StringBuilder sink) throws TranslationException
+    {
+        final IndentedElementWriter enclosingWriter = NESTED_VALUE_WRITER.get();
+        if (enclosingWriter != null && enclosingWriter.getValueSink() == sink)
+        {
+            enclosingWriter.flushText();
+            writeObject(object, new IndentedElementWriter(enclosingWriter.getXmlWriter(), getEscapePropertyValues()));
+            return;
+        }
+
+        writeObject(object, createElementWriter(sink));
+    }
+
+
+    /**
+     * Creates the element writer for an object translated into the given sink.  By default the XML is written on a
+     * single line.
+     *
+     * @param sink The buffer to append the XML to.  Will never be <code>null</code>.
+     *
+     * @return The element writer.  Will never be <code>null</code>.
+     */
+    protected ElementWriter createElementWriter(final StringBuilder sink)
+    {
+        return new SingleLineElementWriter(sink);
+    }
+
+
+    /**
+     * Reads and translates the properties of an object and hands them, with the tags that surround them, to the
+     * element writer.  Instance numbers are assigned in the order the tags are created: the outer element first and
+     * then, for each property, the objects in the value before the property's element.
+     *
+     * @param object The object to translate.  Will never be <code>null</code>.
+     * @param writer The element writer.  Will never be <code>null</code>.
+     *
+     * @throws TranslationException If a property cannot be read or translated.
+     */
+    protected void writeObject(final T object, final ElementWriter writer) throws TranslationException
     {
         String currentPropertyName = "DIFFUNIT UNKNOWN";
         try
         {
-            final StringBuilder sb = new StringBuilder();
+            final String name = object.getClass().getSimpleName();
+            final String startTag = getIncludeEnclosingTags() ? createStartTag(name, object, getIncludeOuterElementInstanceNumber()) : null;
+            writer.startObject(name, startTag);
 
-            if (getIncludeEnclosingTags())
+            for (final PropertyAccessor propertyAccessor : determinePropertyPlan(object))
             {
-                sb.append(createStartTag(object.getClass().getSimpleName(), object, getIncludeOuterElementInstanceNumber()));
-            }
+                currentPropertyName = propertyAccessor.getName();
+                final Object propertyValue = propertyAccessor.read(object);
 
-            final Collection<PropertyDescriptor> eligibleProperties = determinePropertiesEligibleForTranslation(object);
-            for (final PropertyDescriptor propertyDescriptor : eligibleProperties)
-            {
-                currentPropertyName = propertyDescriptor.getName();
-                final Object propertyValue = propertyDescriptor.getReadMethod().invoke(object);
-                String propertyValueAsString = getDelegateTranslator().translate(propertyValue);
-                if (getEscapePropertyValues())
+                final StringBuilder valueSink = writer.beginProperty(currentPropertyName);
+                try
                 {
-                    propertyValueAsString = StringEscapeUtils.escapeXml(propertyValueAsString);
+                    appendTranslation(getDelegateTranslator(), propertyValue, valueSink);
                 }
-                sb.append(String.format("%s%s%s",
-                                        createStartTag(propertyDescriptor.getName(), propertyValue, getIncludeInnerElementInstanceNumber()),
-                                        propertyValueAsString,
-                                        createEndTag(propertyDescriptor.getName())));
-            }
-
-            if (getIncludeEnclosingTags())
-            {
-                sb.append(createEndTag(object.getClass().getSimpleName()));
+                finally
+                {
+                    writer.endPropertyValue();
+                }
+                writer.endProperty(currentPropertyName,
+                                   createStartTag(currentPropertyName, propertyValue, getIncludeInnerElementInstanceNumber()));
             }
 
-            return sb.toString();
+            writer.endObject(name, startTag);
         }
         catch (final Exception e)
         {
@@ -190,4 +238,251 @@ public class ToXmlTranslator<T> extends AbstractPropertyDrivenTranslator<T>
     {
         return String.format("</%s>", tagName);
     }
+
+
+    /**
+     * Receives the pieces of an object's XML from {@link #writeObject(Object, ElementWriter)} in the order they are
+     * translated.  A property's start tag is only known once its value has been translated, because creating it may
+     * number the value.
+     */
+    protected abstract static class ElementWriter
+    {
+        /**
+         * @param name     The name of the enclosing element.  Will never be <code>null</code>.
+         * @param startTag The start tag of the enclosing element, or <code>null</code> if there's no enclosing element.
+         */
+        public abstract void startObject(final String name, final String startTag);
+
+
+        /**
+         * @param name The name of the property.  Will never be <code>null</code>.
+         *
+         * @return The buffer the property value is to be translated into.  Will never be <code>null</code>.
+         */
+        public abstract StringBuilder beginProperty(final String name);
+
+
+        /**
+         * Called once the property value has been translated, even if translating it failed.
+         */
+        public abstract void endPropertyValue();
+
+
+        /**
+         * @param name     The name of the property.  Will never be <code>null</code>.
+         * @param startTag The start tag of the property's element.  Will never be <code>null</code>.
+         */
+        public abstract void endProperty(final String name, final String startTag);
+
+
+        public abstract void endObject(final String name, final String startTag);
+    }
+
+
+    /**
+     * Writes an object's XML on a single line.  Property values are translated straight into the sink and escaped in
+     * place if property values are to be escaped.
+     */
+    protected class SingleLineElementWriter extends ElementWriter
+    {
+        private final StringBuilder _sink;
+        private int _valueStart;
+
+
+        public SingleLineElementWriter(final StringBuilder sink)
+        {
+            _sink = sink;
+        }
+
+
+        @Override
+        public void startObject(final String name, final String startTag)
+        {
+            if (startTag != null)
+            {
+                _sink.append(startTag);
+            }
+        }
+
+
+        @Override
+        public StringBuilder beginProperty(final String name)
+        {
+            _valueStart = _sink.length();
+            return _sink;
+        }
+
+
+        @Override
+        public void endPropertyValue()
+        {
+        }
+
+
+        @Override
+        public void endProperty(final String name, final String startTag)
+        {
+            if (getEscapePropertyValues())
+            {
+                final String value = _sink.substring(_valueStart);
+                _sink.setLength(_valueStart);
+                _sink.append(StringEscapeUtils.escapeXml(value));
+            }
+
+            _sink.insert(_valueStart, startTag);
+            _sink.append(createEndTag(name));
+        }
+
+
+        @Override
+        public void endObject(final String name, final String startTag)
+        {
+            if (startTag != null)
+            {
+                _sink.append(createEndTag(name));
+            }
+        }
+    }
+
+
+    /**
+     * Writes an object's XML as indented lines through an {@link IndentingXmlWriter}.  Property values are translated
+     * into a buffer of their own and written as text.  Unless property values are to be escaped, XML translators that
+     * translate objects into that buffer write their elements through the same XML writer, so nested objects are
+     * indented in turn and their XML is never parsed.
+     */
+    protected static class IndentedElementWriter extends ElementWriter
+    {
+        private final IndentingXmlWriter _xmlWriter;
+        private final boolean _escapePropertyValues;
+        private final StringBuilder _valueSink = new StringBuilder();
+
+        /**
+         * The length of the value buffer already written as text.
+         */
+        private int _flushed;
+        private int _attributePosition;
+        private IndentedElementWriter _enclosingWriter;
+
+
+        /**
+         * @param xmlWriter            The XML writer.  Will never be <code>null</code>.
+         * @param escapePropertyValues Whether property values are to be escaped.  If they are, nested objects are
+         *                             written as escaped text.
+         */
+        public IndentedElementWriter(final IndentingXmlWriter xmlWriter, final boolean escapePropertyValues)
+        {
+            _xmlWriter = xmlWriter;
+            _escapePropertyValues = escapePropertyValues;
+        }
+
+
+        public IndentingXmlWriter getXmlWriter()
+        {
+            return _xmlWriter;
+        }
+
+
+        public StringBuilder getValueSink()
+        {
+            return _valueSink;
+        }
+
+
+        @Override
+        public void startObject(final String name, final String startTag)
+        {
+            if (startTag != null)
+            {
+                getXmlWriter().startElement(name, extractAttributes(name, startTag));
+            }
+        }
+
+
+        @Override
+        public StringBuilder beginProperty(final String name)
+        {
+            _attributePosition = getXmlWriter().startElement(name, "");
+            _valueSink.setLength(0);
+            _flushed = 0;
+
+            if (!_escapePropertyValues)
+            {
+                _enclosingWriter = NESTED_VALUE_WRITER.get();
+                NESTED_VALUE_WRITER.set(this);
+            }
+
+            return _valueSink;
+        }
+
+
+        @Override
+        public void endPropertyValue()
+        {
+            if (!_escapePropertyValues)
+            {
+                if (_enclosingWriter == null)
+                {
+                    NESTED_VALUE_WRITER.remove();
+                }
+                else
+                {
+                    NESTED_VALUE_WRITER.set(_enclosingWriter);
+                    _enclosingWriter = null;
+                }
+            }
+        }
+
+
+        @Override
+        public void endProperty(final String name, final String startTag)
+        {
+            flushText();
+            getXmlWriter().insertAttributes(_attributePosition, extractAttributes(name, startTag));
+            getXmlWriter().endElement(name);
+        }
+
+
+        @Override
+        public void endObject(final String name, final String startTag)
+        {
+            if (startTag != null)
+            {
+                getXmlWriter().endElement(name);
+            }
+        }
+
+
+        /**
+         * Writes the text translated into the value buffer since it was last written.  Called before a nested object's
+         * elements are written and at the end of the property.
+         */
+        public void flushText()
+        {
+            // Translators may take back text they appended, such as a collection's surrounding text.
+            _flushed = Math.min(_flushed, _valueSink.length());
+            if (_valueSink.length() > _flushed)
+            {
+                getXmlWriter().characters(_valueSink.substring(_flushed));
+                _flushed = _valueSink.length();
+            }
+        }
+
+
+        /**
+         * @return The text between the element name and the closing bracket of a start tag made by {@link
+         *         #createStartTag(String, Object, boolean)}.
+         */
+        protected String extractAttributes(final String name, final String startTag)
+        {
+            if (!startTag.startsWith("<" + name) || !startTag.endsWith(">"))
+            {
+                throw new IllegalArgumentException(String.format("Start tag '%s' does not start an element named '%s'.",
+                                                                 startTag,
+                                                                 name));
+            }
+
+            return startTag.substring(name.length() + 1, startTag.length() - 1);
+        }
+    }
 }
@@ -18,31 +18,63 @@ package com.sunsprinter.diffunit.core.translators;
 
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
- * TypeBindingTranslator
+ * Translates objects with the translator bound to their class, one of its interfaces or one of its superclasses.
+ * Objects with no bound translator are translated by the default translator.<p/>
+ *
+ * Bound translators are decorated so that each thread keeps track of the objects it is part way through translating.
+ * An object that is reached again while it is still being translated (a cycle in the object graph) is not translated a
+ * second time.  A short back reference such as <code>ref com.example.Foo#3</code> is written instead.  The same back
+ * reference is written for objects beyond the maximum translation depth or once the maximum number of objects has been
+ * translated for a single top level translation.  Neither limit applies by default.
  *
  * @author Kevan Dunsmore
  * @created 2011/11/10
  */
 public class TypeBindingTranslator extends AbstractTranslator<Object> implements ITypeBindingTranslator
 {
+    /**
+     * Marker stored in the resolution cache for classes that have no bound translator.  Concurrent maps can't hold
+     * <code>null</code> values, so we need something to stand in for "use the default translator".
+     */
+    private static final ITranslator<Object> NO_BOUND_TRANSLATOR = new ToStringTranslator<Object>();
+
     private ITranslator<Object> _defaultTranslator;
     private Map<Class<?>, ITranslator<Object>> _translatorMap;
-    private Set<Integer> _translationScopeSet;
+    private final ThreadLocal<TranslationScope> _translationScope;
+    private int _maximumTranslationDepth;
+    private int _maximumTranslationNodes;
+
+    /**
+     * Contains the translator resolved for each concrete class seen so far, including classes that resolved to nothing
+     * (see {@link #NO_BOUND_TRANSLATOR}).  The whole map is replaced when the bindings change so that a lookup racing
+     * with a call to {@link #bind(ITranslator, Class[])} can never put a stale resolution into the new cache.
+     */
+    private volatile ConcurrentMap<Class<?>, ITranslator<Object>> _resolutionCache;
 
 
     public TypeBindingTranslator()
     {
         _defaultTranslator = createDefaultTranslator();
         _translatorMap = createTranslatorMap();
-        _translationScopeSet = createTranslationScopeSet();
+        _translationScope = new ThreadLocal<TranslationScope>()
+        {
+            @Override
+            protected TranslationScope initialValue()
+            {
+                return createTranslationScope();
+            }
+        };
+        _resolutionCache = createResolutionCache();
     }
 
 
@@ -52,13 +84,25 @@ public class TypeBindingTranslator extends AbstractTranslator<Object> implements
         {
             getTranslatorMap().put(type, createCircularTranslationPreventionDecorator(translator));
         }
+
+        // Bindings have changed, so anything we resolved previously may now be wrong.
+        clearResolutionCache();
+    }
+
+
+    @Override
+    protected final String doTranslate(final Object object) throws TranslationException
+    {
+        final StringBuilder sb = new StringBuilder();
+        doTranslate(object, sb);
+        return sb.toString();
     }
 
 
     @Override
-    protected String doTranslate(final Object object) throws TranslationException
+    protected void doTranslate(final Object object, final StringBuilder sink) throws TranslationException
     {
-        return retrieveTranslatorForClass(object.getClass()).translate(object);
+        appendTranslation(resolveTranslatorForClass(object.getClass()), object, sink);
     }
 
 
@@ -83,18 +127,118 @@ public class TypeBindingTranslator extends AbstractTranslator<Object> implements
     protected void setTranslatorMap(final Map<Class<?>, ITranslator<Object>> translatorMap)
     {
         _translatorMap = translatorMap;
+        clearResolutionCache();
     }
 
 
-    protected Set<Integer> getTranslationScopeSet()
+    protected ConcurrentMap<Class<?>, ITranslator<Object>> getResolutionCache()
     {
-        return _translationScopeSet;
+        return _resolutionCache;
     }
 
 
-    protected void setTranslationScopeSet(final Set<Integer> translationScopeSet)
+    /**
+     * Discards all cached class to translator resolutions.  Called whenever the bindings change.  Subclasses that
+     * modify the translator map directly must call this method afterwards.
+     */
+    protected void clearResolutionCache()
+    {
+        _resolutionCache = createResolutionCache();
+    }
+
+
+    /**
+     * @return The translation scope of the current thread.  Will never be <code>null</code>.
+     */
+    protected TranslationScope getTranslationScope()
+    {
+        return _translationScope.get();
+    }
+
+
+    protected int getMaximumTranslationDepth()
+    {
+        return _maximumTranslationDepth;
+    }
+
+
+    protected void setMaximumTranslationDepth(final int maximumTranslationDepth)
     {
-        _translationScopeSet = translationScopeSet;
+        _maximumTranslationDepth = maximumTranslationDepth;
+    }
+
+
+    /**
+     * Specifies how deeply bound translators may be nested.  Objects any deeper are written as back references.
+     *
+     * @param maximumDepth The maximum depth, or zero for no limit.
+     *
+     * @return This translator, to facilitate call chaining.  Will never be <code>null</code>.
+     */
+    @SuppressWarnings("unchecked")
+    public <I extends TypeBindingTranslator> I limitDepthTo(final int maximumDepth)
+    {
+        setMaximumTranslationDepth(maximumDepth);
+        return (I)this;
+    }
+
+
+    protected int getMaximumTranslationNodes()
+    {
+        return _maximumTranslationNodes;
+    }
+
+
+    protected void setMaximumTranslationNodes(final int maximumTranslationNodes)
+    {
+        _maximumTranslationNodes = maximumTranslationNodes;
+    }
+
+
+    /**
+     * Specifies how many objects bound translators may translate in a single top level translation.  Any further
+     * objects are written as back references.
+     *
+     * @param maximumNodes The maximum number of objects, or zero for no limit.
+     *
+     * @return This translator, to facilitate call chaining.  Will never be <code>null</code>.
+     */
+    @SuppressWarnings("unchecked")
+    public <I extends TypeBindingTranslator> I limitNodesTo(final int maximumNodes)
+    {
+        setMaximumTranslationNodes(maximumNodes);
+        return (I)this;
+    }
+
+
+    /**
+     * Returns the translator to use for objects of the given class.  The result of walking the class hierarchy with
+     * {@link #retrieveTranslatorForClass(Class)} is memoized per class, so repeated lookups for the same class cost a
+     * single hash probe.
+     *
+     * @param aClass The class of the object to be translated.  May not be <code>null</code>.
+     *
+     * @return The translator for the class.  Will never be <code>null</code>.
+     */
+    protected ITranslator<Object> resolveTranslatorForClass(final Class<?> aClass)
+    {
+        final ConcurrentMap<Class<?>, ITranslator<Object>> resolutionCache = getResolutionCache();
+
+        ITranslator<Object> translator = resolutionCache.get(aClass);
+        if (translator == null)
+        {
+            translator = retrieveTranslatorForClass(aClass);
+
+            // Remember classes that fell through to the default translator as negative results rather than caching
+            // the default translator itself.  That way a later call to setDefaultTranslator() is still honored.
+            resolutionCache.put(aClass, translator == getDefaultTranslator() ? NO_BOUND_TRANSLATOR : translator);
+        }
+        else if (translator == NO_BOUND_TRANSLATOR)
+        {
+            translator = getDefaultTranslator();
+        }
+
+        return translator;
     }
 
 
@@ -145,26 +289,70 @@ public class TypeBindingTranslator extends AbstractTranslator<Object> implements
 
 
     /**
-     * Factory method to create the translator map.  Creates a new instance of {@link HashMap}.  Subclasses may override
-     * to supply a custom translator map.
+     * Factory method to create the translator map.  Creates a new instance of {@link ConcurrentHashMap} so that
+     * bindings can be read while another thread is binding.  Subclasses may override to supply a custom translator
+     * map.
      *
      * @return The translator map.  Will never be <code>null</code>.
      */
     protected Map<Class<?>, ITranslator<Object>> createTranslatorMap()
     {
-        return new HashMap<Class<?>, ITranslator<Object>>();
+        return new ConcurrentHashMap<Class<?>, ITranslator<Object>>();
     }
 
 
     /**
-     * Factory method to create translation scope set.  Creates a new instance of {@link HashSet}.  Subclasses may
-     * override to supply a custom {@link java.util.Set} type.
+     * Factory method to create the cache of resolved translators.  Creates a new instance of {@link
+     * ConcurrentHashMap}.  Subclasses may override to supply a custom map, which must be safe for concurrent reads and
+     * writes.
      *
-     * @return The translation scope set.  Will never be <code>null</code>.
+     * @return The resolution cache.  Will never be <code>null</code>.
      */
-    protected Set<Integer> createTranslationScopeSet()
+    protected ConcurrentMap<Class<?>, ITranslator<Object>> createResolutionCache()
     {
-        return new HashSet<Integer>();
+        return new ConcurrentHashMap<Class<?>, ITranslator<Object>>();
+    }
+
+
+    /**
+     * Factory method to create the translation scope for a thread.  Subclasses may override to supply a custom scope.
+     *
+     * @return The translation scope.  Will never be <code>null</code>.
+     */
+    protected TranslationScope createTranslationScope()
+    {
+        return new TranslationScope();
+    }
+
+
+    /**
+     * Determines whether an object is to be written as a back reference rather than translated, either because it is
+     * already being translated or because a translation limit has been reached.
+     *
+     * @param object The object about to be translated.  Will never be <code>null</code>.
+     * @param scope  The translation scope of the current thread.  Will never be <code>null</code>.
+     *
+     * @return <code>true</code> if the object is not to be translated.
+     */
+    protected boolean isBackReference(final Object object, final TranslationScope scope)
+    {
+        return scope.contains(object) ||
+               (getMaximumTranslationDepth() > 0 && scope.getDepth() >= getMaximumTranslationDepth()) ||
+               (getMaximumTranslationNodes() > 0 && scope.getNodeCount() >= getMaximumTranslationNodes());
+    }
+
+
+    /**
+     * Appends a back reference to an object, made up of its identifier as the instance tracker writes it: the full class
+     * name and instance number.  Short class names would be empty for anonymous classes and the same for classes such as
+     * <code>java.util.ArrayList</code> and <code>java.util.Arrays$ArrayList</code>.
+     *
+     * @param object The object.  Will never be <code>null</code>.
+     * @param sink   The buffer to append the back reference to.  Will never be <code>null</code>.
+     */
+    protected void appendBackReference(final Object object, final StringBuilder sink)
+    {
+        sink.append("ref ").append(getInstanceTracker().getObjectId(object));
     }
 
 
@@ -185,9 +373,9 @@ public class TypeBindingTranslator extends AbstractTranslator<Object> implements
     /**
      * This decorator translator ensures that translation only occurs for objects not currently being translated.  In
      * other words, if you have an object graph A->B->C->A...  Then this decorator will detect the second attempt to
-     * translate A and prevent it.
+     * translate A and write a back reference to A instead.  It also enforces the translation depth and node limits.
      */
-    protected class CircularTranslationPreventionDecorator implements ITranslator<Object>
+    protected class CircularTranslationPreventionDecorator implements IAppendingTranslator<Object>
     {
         /**
          * The delegate translator that does most of the work.
@@ -205,25 +393,36 @@ public class TypeBindingTranslator extends AbstractTranslator<Object> implements
         @Override
         public String translate(final Object object) throws TranslationException
         {
-            final int identityHashCode = System.identityHashCode(object);
+            final StringBuilder sb = new StringBuilder();
+            translate(object, sb);
+            return sb.toString();
+        }
 
-            // We don't want to track nulls.  The identity hash code of null is always 0.
-            if (identityHashCode == 0)
+
+        @Override
+        public void translate(final Object object, final StringBuilder sink) throws TranslationException
+        {
+            if (object == null)
+            {
+                appendTranslation(getDelegate(), null, sink);
+                return;
+            }
+
+            final TranslationScope scope = getTranslationScope();
+            if (isBackReference(object, scope))
             {
-                // We've seen this object before on our travels.  We don't translate it because we'll end up with a
-                // circular translation and, eventually, a stack overflow.
-                return String.format("Translation of '%s' skipped to prevent stack overflow",
-                                     getInstanceTracker().getObjectId(object));
+                appendBackReference(object, sink);
+                return;
             }
 
+            scope.enter(object);
             try
             {
-                getTranslationScopeSet().add(identityHashCode);
-                return getDelegate().translate(object);
+                appendTranslation(getDelegate(), object, sink);
             }
             finally
             {
-                getTranslationScopeSet().remove(identityHashCode);
+                scope.exit(object);
             }
         }
 
@@ -236,4 +435,51 @@ public class TypeBindingTranslator extends AbstractTranslator<Object> implements
             return _delegate;
         }
     }
+
+
+    /**
+     * Keeps track of the objects a thread is part way through translating, how deeply the translations are nested and
+     * how many objects have been translated since the outermost translation began.  Objects are compared by identity.
+     */
+    protected static class TranslationScope
+    {
+        private final Set<Object> _objects = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        private int _nodeCount;
+
+
+        public boolean contains(final Object object)
+        {
+            return _objects.contains(object);
+        }
+
+
+        public int getDepth()
+        {
+            return _objects.size();
+        }
+
+
+        public int getNodeCount()
+        {
+            return _nodeCount;
+        }
+
+
+        public void enter(final Object object)
+        {
+            _objects.add(object);
+            _nodeCount++;
+        }
+
+
+        public void exit(final Object object)
+        {
+            _objects.remove(object);
+            if (_objects.isEmpty())
+            {
+                // The outermost translation is complete, so the next one starts counting afresh.
+                _nodeCount = 0;
+            }
+        }
+    }
 }
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.comparison;
+
+
+import java.io.File;
+import java.security.MessageDigest;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sunsprinter.diffunit.core.context.TestingContext;
+
+
+/**
+ * Tests the functionality of the {@link AbstractFileComparer} class.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class AbstractFileComparerTest
+{
+    private static final String BASE_DIRECTORY = "target/AbstractFileComparerTest";
+
+    private File _knownGoodDirectory;
+    private File _generatedDirectory;
+    private String _failureMessage;
+
+
+    @Before
+    public void setUp() throws Exception
+    {
+        FileUtils.deleteDirectory(new File(BASE_DIRECTORY));
+        _knownGoodDirectory = new File(BASE_DIRECTORY, "knownGood");
+        _generatedDirectory = new File(BASE_DIRECTORY, "generated");
+        Assert.assertTrue(_knownGoodDirectory.mkdirs());
+        Assert.assertTrue(_generatedDirectory.mkdirs());
+        _failureMessage = null;
+    }
+
+
+    @After
+    public void tearDown() throws Exception
+    {
+        FileUtils.deleteDirectory(new File(BASE_DIRECTORY));
+    }
+
+
+    @Test
+    public void testIdenticalFilesPass() throws Exception
+    {
+        compare(new FirstDifferenceTest(), "a\nb\nc\n", "a\nb\nc\n");
+        Assert.assertNull(_failureMessage);
+    }
+
+
+    @Test
+    public void testFirstDifference() throws Exception
+    {
+        final File generatedFile = compare(new FirstDifferenceTest(), "a\nb\nc\nd\n", "a\nbx\nc\ny\ne\n");
+        Assert.assertEquals(String.format("Generated file %s does not match known good file %s.  " +
+                                          "The number of lines is different.  The known good file has 4 lines.  " +
+                                          "The generated file has 5 lines.  " +
+                                          "First difference detected at line number 2, position 1.\n\n" +
+                                          "Known Good: b\n" +
+                                          "Generated : bx\n",
+                                          generatedFile.getAbsolutePath(),
+                                          new File(_knownGoodDirectory, "results.txt").getAbsolutePath()),
+                            _failureMessage);
+    }
+
+
+    @Test
+    public void testAllDifferences() throws Exception
+    {
+        final File generatedFile = compare(new AllDifferencesTest(), "a\nb\nc\nd\n", "a\nbx\nc\ny\n");
+        Assert.assertTrue(_failureMessage, _failureMessage.endsWith(
+                "First difference detected at line number 2, position 1.\n\n" +
+                "Known Good: b\n" +
+                "Generated : bx\n" +
+                "\n" +
+                "--- " + new File(_knownGoodDirectory, "results.txt").getAbsolutePath() + "\n" +
+                "+++ " + generatedFile.getAbsolutePath() + "\n" +
+                "@@ -1,4 +1,4 @@\n" +
+                " a\n" +
+                "-b\n" +
+                "+bx\n" +
+                " c\n" +
+                "-d\n" +
+                "+y\n"));
+    }
+
+
+    @Test
+    public void testInsertedLineIsOneDifference() throws Exception
+    {
+        final StringBuilder knownGood = new StringBuilder();
+        final StringBuilder generated = new StringBuilder();
+        for (int i = 0; i < 20; i++)
+        {
+            knownGood.append(i).append('\n');
+            generated.append(i).append('\n');
+            if (i == 9)
+            {
+                generated.append("inserted\n");
+            }
+        }
+
+        compare(new AllDifferencesTest(), knownGood.toString(), generated.toString());
+        Assert.assertTrue(_failureMessage, _failureMessage.endsWith(
+                "@@ -8,6 +8,7 @@\n" +
+                " 7\n" +
+                " 8\n" +
+                " 9\n" +
+                "+inserted\n" +
+                " 10\n" +
+                " 11\n" +
+                " 12\n"));
+    }
+
+
+    @Test
+    public void testIncrementalComparison() throws Exception
+    {
+        FileUtils.writeStringToFile(new File(_knownGoodDirectory, "results.txt"), "a\nb\nc\n");
+        final AbstractFileComparer comparer = createComparer(new FirstDifferenceTest());
+        final File generatedFile = new File(_generatedDirectory, "results.txt");
+
+        IIncrementalComparison comparison = comparer.beginIncrementalComparison("results.txt");
+        comparison.compareLines("a");
+        Assert.assertNull(_failureMessage);
+        comparison.compareLines("bx\nc");
+        comparison.close();
+        Assert.assertEquals(String.format("Generated file %s does not match known good file %s.  " +
+                                          "First difference detected at line number 2, position 1.\n\n" +
+                                          "Known Good: b\n" +
+                                          "Generated : bx\n",
+                                          generatedFile.getAbsolutePath(),
+                                          new File(_knownGoodDirectory, "results.txt").getAbsolutePath()),
+                            _failureMessage);
+
+        _failureMessage = null;
+        comparison = comparer.beginIncrementalComparison("results.txt");
+        comparison.compareLines("a\nb\nc");
+        Assert.assertNull(_failureMessage);
+        comparison.compareLines("");
+        comparison.close();
+        Assert.assertTrue(_failureMessage, _failureMessage.contains("The known good file has 3 lines.  The generated file has more."));
+
+        // Without a known good file every line is accepted, so the test still gets to write its output.
+        _failureMessage = null;
+        comparison = comparer.beginIncrementalComparison("missing.txt");
+        comparison.compareLines("anything");
+        comparison.close();
+        Assert.assertNull(_failureMessage);
+    }
+
+
+    @Test
+    public void testParallelComparisonReportsAllFilesInOrder() throws Exception
+    {
+        final AbstractFileComparer comparer = createComparer(new ParallelTest());
+        final String[] names = {"d.txt", "c.txt", "b.txt", "a.txt"};
+        for (final String name : names)
+        {
+            FileUtils.writeStringToFile(new File(_knownGoodDirectory, name), "same\n" + name + "\n");
+            final File generatedFile = new File(_generatedDirectory, name);
+            FileUtils.writeStringToFile(generatedFile, "same\n" + (name.equals("b.txt") ? name : "changed") + "\n");
+            comparer.registerFileToCompare(generatedFile);
+        }
+        comparer.compareAllFiles();
+
+        final int d = _failureMessage.indexOf("d.txt does not match");
+        final int c = _failureMessage.indexOf("c.txt does not match");
+        final int a = _failureMessage.indexOf("a.txt does not match");
+        Assert.assertTrue(_failureMessage, d >= 0 && d < c && c < a);
+        Assert.assertFalse(_failureMessage, _failureMessage.contains("b.txt does not match"));
+    }
+
+
+    @Test
+    public void testInMemoryContentsOnlyWrittenOnFailure() throws Exception
+    {
+        FileUtils.writeStringToFile(new File(_knownGoodDirectory, "results.txt"), "a\nb\n");
+        final File generatedFile = new File(_generatedDirectory, "results.txt");
+
+        AbstractFileComparer comparer = createComparer(new FirstDifferenceTest());
+        comparer.registerContentsToCompare(generatedFile, "a\nb\n".getBytes(), null);
+        comparer.compareAllFiles();
+        Assert.assertNull(_failureMessage);
+        Assert.assertFalse(generatedFile.exists());
+
+        comparer = createComparer(new FirstDifferenceTest());
+        comparer.registerContentsToCompare(generatedFile, "a\nx\n".getBytes(), null);
+        comparer.compareAllFiles();
+        Assert.assertTrue(_failureMessage, _failureMessage.contains("Generated : x"));
+        Assert.assertEquals("a\nx\n", FileUtils.readFileToString(generatedFile));
+    }
+
+
+    @Test
+    public void testDigestManifest() throws Exception
+    {
+        final File knownGoodFile = new File(_knownGoodDirectory, "results.txt");
+        final File manifestFile = new File(_knownGoodDirectory, DigestManifest.MANIFEST_FILE_NAME);
+        FileUtils.writeStringToFile(knownGoodFile, "a\nb\n");
+        final File generatedFile = new File(_generatedDirectory, "results.txt");
+        FileUtils.writeStringToFile(generatedFile, "a\nb\n");
+        final byte[] digest = MessageDigest.getInstance(IFileComparer.DIGEST_ALGORITHM).digest("a\nb\n".getBytes());
+        Assert.assertTrue(knownGoodFile.setLastModified(System.currentTimeMillis() - 60000));
+
+        // The first comparison reads both files and records the known good digest.
+        AbstractFileComparer comparer = createComparer(new DigestManifestTest());
+        comparer.registerFileToCompare(generatedFile, digest);
+        comparer.compareAllFiles();
+        Assert.assertNull(_failureMessage);
+        Assert.assertTrue(manifestFile.isFile());
+
+        // Once the manifest has a current digest the files are not read, so a generated file whose registered digest
+        // matches passes even though its contents have changed.
+        FileUtils.writeStringToFile(generatedFile, "a\nx\n");
+        comparer = createComparer(new DigestManifestTest());
+        comparer.registerFileToCompare(generatedFile, digest);
+        comparer.compareAllFiles();
+        Assert.assertNull(_failureMessage);
+
+        // A differing digest goes straight to the line comparison.
+        comparer = createComparer(new DigestManifestTest());
+        comparer.registerFileToCompare(generatedFile, MessageDigest.getInstance(IFileComparer.DIGEST_ALGORITHM).digest("a\nx\n".getBytes()));
+        comparer.compareAllFiles();
+        Assert.assertTrue(_failureMessage, _failureMessage.contains("Generated : x"));
+
+        // Changing the known good file makes its entry stale, so the files are compared byte for byte again.
+        _failureMessage = null;
+        FileUtils.writeStringToFile(knownGoodFile, "a\nb\nc\n");
+        comparer = createComparer(new DigestManifestTest());
+        comparer.registerFileToCompare(generatedFile, digest);
+        comparer.compareAllFiles();
+        Assert.assertTrue(_failureMessage, _failureMessage.contains("The number of lines is different."));
+    }
+
+
+    @Test
+    public void testDigestManifestDistrustsEntriesRecordedSoonAfterModification() throws Exception
+    {
+        final File knownGoodFile = new File(_knownGoodDirectory, "results.txt");
+        FileUtils.writeStringToFile(knownGoodFile, "a\nb\n");
+        final byte[] digest = MessageDigest.getInstance(IFileComparer.DIGEST_ALGORITHM).digest("a\nb\n".getBytes());
+
+        // The file could still change without its modification time changing, so the entry isn't trusted.
+        final DigestManifest digestManifest = new DigestManifest(_knownGoodDirectory);
+        digestManifest.putDigest(knownGoodFile, digest);
+        Assert.assertNull(digestManifest.getDigest(knownGoodFile));
+
+        // The entry survives being stored and loaded, and one recorded long after the modification is trusted.
+        Assert.assertTrue(knownGoodFile.setLastModified(System.currentTimeMillis() - 60000));
+        digestManifest.putDigest(knownGoodFile, digest);
+        digestManifest.store();
+        digestManifest.load();
+        Assert.assertArrayEquals(digest, digestManifest.getDigest(knownGoodFile));
+    }
+
+
+    protected File compare(final Object test, final String knownGood, final String generated) throws Exception
+    {
+        FileUtils.writeStringToFile(new File(_knownGoodDirectory, "results.txt"), knownGood);
+        final File generatedFile = new File(_generatedDirectory, "results.txt");
+        FileUtils.writeStringToFile(generatedFile, generated);
+
+        final AbstractFileComparer comparer = createComparer(test);
+        comparer.registerFileToCompare(generatedFile);
+        comparer.compareAllFiles();
+
+        return generatedFile;
+    }
+
+
+    protected AbstractFileComparer createComparer(final Object test)
+    {
+        final TestingContext testingContext = new TestingContext();
+        testingContext.setTest(test);
+        testingContext.setTestName("test");
+        testingContext.setOutputDirectory(_generatedDirectory);
+
+        final AbstractFileComparer comparer = new AbstractFileComparer()
+        {
+            @Override
+            protected void fail(final String message) throws Exception
+            {
+                _failureMessage = message;
+            }
+        };
+        comparer.setTestingContext(testingContext);
+
+        return comparer;
+    }
+
+
+    @DiffUnitInputLocation(locationType = InputLocationType.FILE_SYSTEM, location = BASE_DIRECTORY + "/knownGood")
+    public static class FirstDifferenceTest
+    {
+    }
+
+
+    @DiffUnitInputLocation(locationType = InputLocationType.FILE_SYSTEM, location = BASE_DIRECTORY + "/knownGood")
+    @DiffUnitComparison(reportAllDifferences = true)
+    public static class AllDifferencesTest
+    {
+    }
+
+
+    @DiffUnitInputLocation(locationType = InputLocationType.FILE_SYSTEM, location = BASE_DIRECTORY + "/knownGood")
+    @DiffUnitComparison(parallel = true, threads = 3)
+    public static class ParallelTest
+    {
+    }
+
+
+    @DiffUnitInputLocation(locationType = InputLocationType.FILE_SYSTEM, location = BASE_DIRECTORY + "/knownGood")
+    @DiffUnitComparison(digestManifest = true)
+    public static class DigestManifestTest
+    {
+    }
+}
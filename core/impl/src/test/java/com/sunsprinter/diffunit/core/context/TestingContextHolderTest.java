@@ -0,0 +1,81 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.context;
+
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Tests the functionality of the {@link TestingContextHolder} class.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class TestingContextHolderTest
+{
+    @After
+    public void tearDown() throws Exception
+    {
+        TestingContextHolder.clear();
+    }
+
+
+    @Test
+    public void testContextIsInheritedButNotShared() throws Exception
+    {
+        final TestingContext parentContext = new TestingContext();
+        TestingContextHolder.set(parentContext);
+
+        final ITestingContext[] seen = new ITestingContext[2];
+        final TestingContext childContext = new TestingContext();
+        final Thread child = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                seen[0] = TestingContextHolder.get();
+                TestingContextHolder.set(childContext);
+                seen[1] = TestingContextHolder.get();
+            }
+        };
+        child.start();
+        child.join();
+
+        Assert.assertSame(parentContext, seen[0]);
+        Assert.assertSame(childContext, seen[1]);
+        Assert.assertSame(parentContext, TestingContextHolder.get());
+
+        TestingContextHolder.clear();
+        Assert.assertNull(TestingContextHolder.get());
+    }
+
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedFieldFollowsLatestContext() throws Exception
+    {
+        final TestingContext testingContext = new TestingContext();
+        TestingContextHolder.set(testingContext);
+        Assert.assertSame(testingContext, TestingContextHolder.CONTEXT);
+
+        TestingContextHolder.clear();
+        Assert.assertNull(TestingContextHolder.CONTEXT);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.instancetracking;
+
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Tests the functionality of the {@link ObjectInstanceTracker} class.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class ObjectInstanceTrackerTest
+{
+    @Test
+    public void testNumbersPerClass() throws Exception
+    {
+        final ObjectInstanceTracker tracker = new ObjectInstanceTracker();
+        final Object first = new Object();
+        final Object second = new Object();
+
+        Assert.assertEquals(1, tracker.getObjectId(first).getInstanceNumber());
+        Assert.assertEquals(1, tracker.getObjectId("a string").getInstanceNumber());
+        Assert.assertEquals(2, tracker.getObjectId(second).getInstanceNumber());
+        Assert.assertSame(tracker.getObjectId(first), tracker.getObjectId(first));
+        Assert.assertFalse(tracker.getObjectId(first).equals(tracker.getObjectId(second)));
+
+        tracker.reset();
+        Assert.assertEquals(1, tracker.getObjectId(second).getInstanceNumber());
+    }
+
+
+    @Test
+    public void testNumberAssignedDuringResetIsNotKept() throws Exception
+    {
+        // Resets while the first object is being numbered, as another thread could.
+        final ObjectInstanceTracker tracker = new ObjectInstanceTracker()
+        {
+            private boolean _reset;
+
+
+            @Override
+            protected IObjectIdentifier createObjectId(final Object object, final int instanceNumber)
+            {
+                if (!_reset)
+                {
+                    _reset = true;
+                    reset();
+                }
+                return super.createObjectId(object, instanceNumber);
+            }
+        };
+        final Object first = new Object();
+        final Object second = new Object();
+
+        Assert.assertEquals(1, tracker.getObjectId(first).getInstanceNumber());
+        Assert.assertEquals(1, tracker.getObjectId(second).getInstanceNumber());
+        Assert.assertEquals(2, tracker.getObjectId(first).getInstanceNumber());
+    }
+
+
+    @Test
+    public void testConcurrentThreadsNumberEachObjectOnce() throws Exception
+    {
+        final ObjectInstanceTracker tracker = new ObjectInstanceTracker();
+        final Object[] objects = new Object[5000];
+        for (int i = 0; i < objects.length; i++)
+        {
+            objects[i] = new Object();
+        }
+
+        final IObjectIdentifier[][] ids = new IObjectIdentifier[8][objects.length];
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final Thread[] threads = new Thread[ids.length];
+        for (int t = 0; t < threads.length; t++)
+        {
+            final IObjectIdentifier[] threadIds = ids[t];
+            threads[t] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        startLatch.await();
+                    }
+                    catch (final InterruptedException e)
+                    {
+                        return;
+                    }
+                    for (int i = 0; i < objects.length; i++)
+                    {
+                        threadIds[i] = tracker.getObjectId(objects[i]);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        startLatch.countDown();
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        final Set<Integer> numbers = new HashSet<Integer>();
+        for (int i = 0; i < objects.length; i++)
+        {
+            for (final IObjectIdentifier[] threadIds : ids)
+            {
+                Assert.assertSame(ids[0][i], threadIds[i]);
+            }
+            numbers.add(ids[0][i].getInstanceNumber());
+        }
+        Assert.assertEquals(objects.length, numbers.size());
+        Assert.assertTrue(numbers.contains(1));
+        Assert.assertTrue(numbers.contains(objects.length));
+    }
+}
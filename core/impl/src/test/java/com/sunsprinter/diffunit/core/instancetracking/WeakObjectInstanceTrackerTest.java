@@ -0,0 +1,54 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.instancetracking;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Tests the functionality of the {@link WeakObjectInstanceTracker} class.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class WeakObjectInstanceTrackerTest
+{
+    @Test
+    public void testCollectedObjectsAreForgottenButNumbersAreNotReused() throws Exception
+    {
+        final WeakObjectInstanceTracker tracker = new WeakObjectInstanceTracker();
+        final Object survivor = new Object();
+        Assert.assertEquals("java.lang.Object#1", tracker.getObjectId(survivor).toString());
+        for (int i = 0; i < 1000; i++)
+        {
+            tracker.getObjectId(new Object());
+        }
+
+        for (int attempt = 0; attempt < 50 && tracker.size() > 1; attempt++)
+        {
+            System.gc();
+            Thread.sleep(10);
+            tracker.getObjectId(survivor);
+        }
+
+        Assert.assertEquals(1, tracker.size());
+        Assert.assertEquals(1, tracker.getObjectId(survivor).getInstanceNumber());
+        Assert.assertEquals(1002, tracker.getObjectId(new Object()).getInstanceNumber());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.output;
+
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Tests the functionality of the {@link OutputDirectoryCleaner} class.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class OutputDirectoryCleanerTest
+{
+    private File _baseDirectory;
+
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _baseDirectory = new File("target/OutputDirectoryCleanerTest");
+        FileUtils.deleteDirectory(_baseDirectory);
+        Assert.assertTrue(_baseDirectory.mkdirs());
+    }
+
+
+    @After
+    public void tearDown() throws Exception
+    {
+        FileUtils.deleteDirectory(_baseDirectory);
+    }
+
+
+    @Test
+    public void testDiscard() throws Exception
+    {
+        final File directory = new File(_baseDirectory, "test");
+        FileUtils.writeStringToFile(new File(directory, "nested/results.txt"), "old output");
+
+        // A directory left behind by an earlier run whose deletion never finished.
+        final File leftover = new File(_baseDirectory, "test" + OutputDirectoryCleaner.DISCARDED_DIRECTORY_MARKER + "1-1");
+        FileUtils.writeStringToFile(new File(leftover, "results.txt"), "older output");
+        // Other directories are left alone, including those whose names share the prefix but that the cleaner never
+        // gives.
+        final String[] kept = {"other", "test" + OutputDirectoryCleaner.DISCARDED_DIRECTORY_MARKER + "1-1.bak",
+                               "test" + OutputDirectoryCleaner.DISCARDED_DIRECTORY_MARKER + "notes"};
+        for (final String name : kept)
+        {
+            Assert.assertTrue(new File(_baseDirectory, name).mkdirs());
+        }
+
+        new OutputDirectoryCleaner().discard(directory);
+        Assert.assertFalse(directory.exists());
+
+        // The renamed directories are deleted in the background.
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (_baseDirectory.list().length > kept.length && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        final String[] remaining = _baseDirectory.list();
+        Arrays.sort(remaining);
+        Arrays.sort(kept);
+        Assert.assertArrayEquals(kept, remaining);
+
+        // The deleting thread ends once it has nothing left to do.
+        while (isDeletionThreadAlive() && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        Assert.assertFalse(isDeletionThreadAlive());
+
+        // Discarding a directory that doesn't exist does nothing.
+        new OutputDirectoryCleaner().discard(directory);
+    }
+
+
+    protected boolean isDeletionThreadAlive()
+    {
+        for (final Thread thread : Thread.getAllStackTraces().keySet())
+        {
+            if (thread.getName().equals("DiffUnit output directory cleaner"))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.output;
+
+
+import java.io.File;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sunsprinter.diffunit.core.comparison.IFileComparer;
+import com.sunsprinter.diffunit.core.comparison.IIncrementalComparison;
+import com.sunsprinter.diffunit.core.context.TestingContext;
+import com.sunsprinter.diffunit.core.instancetracking.ObjectInstanceTracker;
+import com.sunsprinter.diffunit.core.translators.RootTranslator;
+
+
+/**
+ * Tests the functionality of the {@link OutputManager} class.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class OutputManagerTest
+{
+    private File _outputDirectory;
+    private List<File> _registeredFiles;
+    private Map<File, byte[]> _registeredDigests;
+    private Map<File, byte[]> _registeredContents;
+    private List<String> _incrementallyCompared;
+    private TestingContext _testingContext;
+
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _outputDirectory = new File("target/OutputManagerTest");
+        FileUtils.deleteDirectory(_outputDirectory);
+        Assert.assertTrue(_outputDirectory.mkdirs());
+
+        _registeredFiles = new LinkedList<File>();
+        _registeredDigests = new LinkedHashMap<File, byte[]>();
+        _registeredContents = new LinkedHashMap<File, byte[]>();
+        _incrementallyCompared = new LinkedList<String>();
+
+        _testingContext = new TestingContext();
+        _testingContext.setTest(this);
+        _testingContext.setOutputDirectory(_outputDirectory);
+        _testingContext.setOutputObjects(new LinkedList<Object>());
+        _testingContext.setInstanceTracker(new ObjectInstanceTracker());
+        _testingContext.setRootTranslator(new RootTranslator().<RootTranslator>use(_testingContext));
+        _testingContext.setFileComparer(new IFileComparer()
+        {
+            @Override
+            public void registerFileToCompare(final File file)
+            {
+                _registeredFiles.add(file);
+            }
+
+
+            @Override
+            public void registerFileToCompare(final File file, final byte[] digest)
+            {
+                registerFileToCompare(file);
+                _registeredDigests.put(file, digest);
+            }
+
+
+            @Override
+            public void registerContentsToCompare(final File file, final byte[] contents, final byte[] digest)
+            {
+                registerFileToCompare(file, digest);
+                _registeredContents.put(file, contents);
+            }
+
+
+            @Override
+            public IIncrementalComparison beginIncrementalComparison(final String fileName) throws Exception
+            {
+                _incrementallyCompared.add(fileName);
+                return new IIncrementalComparison()
+                {
+                    @Override
+                    public void compareLines(final String text) throws Exception
+                    {
+                        if (text.equals("bad"))
+                        {
+                            throw new AssertionError("Mismatch in " + fileName);
+                        }
+                    }
+
+
+                    @Override
+                    public void close()
+                    {
+                    }
+                };
+            }
+
+
+            @Override
+            public void compareAllFiles() throws Exception
+            {
+            }
+        });
+    }
+
+
+    @After
+    public void tearDown() throws Exception
+    {
+        FileUtils.deleteDirectory(_outputDirectory);
+    }
+
+
+    @Test
+    public void testStreamingMatchesBuffered() throws Exception
+    {
+        final OutputManager buffered = createOutputManager(OutputMode.BUFFERED);
+        writeSampleOutput(buffered, "buffered.txt");
+
+        final OutputManager streaming = createOutputManager(OutputMode.STREAMING);
+        writeSampleOutput(streaming, "streaming.txt");
+
+        // Streamed objects never touch the output objects collection.
+        Assert.assertTrue(_testingContext.getOutputObjects().isEmpty());
+
+        Assert.assertEquals(FileUtils.readFileToString(new File(_outputDirectory, "buffered.txt")),
+                            FileUtils.readFileToString(new File(_outputDirectory, "streaming.txt")));
+        Assert.assertEquals(Arrays.asList(new File(_outputDirectory, "buffered.txt"),
+                                          new File(_outputDirectory, "streaming.txt")),
+                            _registeredFiles);
+    }
+
+
+    @Test
+    public void testDigestComputedWhileWriting() throws Exception
+    {
+        writeSampleOutput(createOutputManager(OutputMode.BUFFERED), "buffered.txt");
+        writeSampleOutput(createOutputManager(OutputMode.STREAMING), "streaming.txt");
+        createOutputManager(OutputMode.STREAMING).writeFile("empty.txt");
+
+        Assert.assertEquals(3, _registeredDigests.size());
+        for (final Map.Entry<File, byte[]> entry : _registeredDigests.entrySet())
+        {
+            final byte[] expected = MessageDigest.getInstance(IFileComparer.DIGEST_ALGORITHM)
+                    .digest(FileUtils.readFileToByteArray(entry.getKey()));
+            Assert.assertArrayEquals(entry.getKey().getName(), expected, entry.getValue());
+        }
+    }
+
+
+    @Test
+    public void testInMemoryWritesNothingToDisk() throws Exception
+    {
+        writeSampleOutput(createOutputManager(OutputMode.BUFFERED), "buffered.txt");
+        writeSampleOutput(createOutputManager(OutputMode.IN_MEMORY), "inMemory.txt");
+
+        final File inMemoryFile = new File(_outputDirectory, "inMemory.txt");
+        Assert.assertFalse(inMemoryFile.exists());
+        Assert.assertEquals(Arrays.asList(new File(_outputDirectory, "buffered.txt"), inMemoryFile), _registeredFiles);
+        Assert.assertArrayEquals(FileUtils.readFileToByteArray(new File(_outputDirectory, "buffered.txt")),
+                                 _registeredContents.get(inMemoryFile));
+        Assert.assertArrayEquals(MessageDigest.getInstance(IFileComparer.DIGEST_ALGORITHM).digest(_registeredContents.get(inMemoryFile)),
+                                 _registeredDigests.get(inMemoryFile));
+    }
+
+
+    @Test
+    public void testFailFastStopsAtFirstDifference() throws Exception
+    {
+        final OutputManager outputManager = createOutputManager(OutputMode.STREAMING);
+        outputManager.setFailFast(true);
+
+        outputManager.add("good");
+        outputManager.writeFile(IOutputManager.DEFAULT_FILE_NAME);
+
+        outputManager.beginFile("named.txt");
+        outputManager.add("good");
+        try
+        {
+            outputManager.add("bad");
+            Assert.fail("Expected the mismatch to stop the test.");
+        }
+        catch (final AssertionError e)
+        {
+            Assert.assertEquals("Mismatch in named.txt", e.getMessage());
+        }
+
+        Assert.assertEquals(Arrays.asList(IOutputManager.DEFAULT_FILE_NAME, "named.txt"), _incrementallyCompared);
+        Assert.assertEquals(String.format("good%nbad%n"), FileUtils.readFileToString(new File(_outputDirectory, "named.txt")));
+        Assert.assertFalse(outputManager.hasUnwrittenOutput());
+    }
+
+
+    @Test
+    public void testFailFastRejectsFileNotCompared() throws Exception
+    {
+        final OutputManager outputManager = createOutputManager(OutputMode.STREAMING);
+        outputManager.setFailFast(true);
+
+        outputManager.add("good");
+        try
+        {
+            outputManager.writeFile("orders.txt");
+            Assert.fail("Expected writing output compared with another file to fail.");
+        }
+        catch (final RuntimeException e)
+        {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("beginFile(\"orders.txt\")"));
+        }
+        Assert.assertFalse(new File(_outputDirectory, "orders.txt").exists());
+    }
+
+
+    @Test
+    public void testAbandonUnwrittenOutput() throws Exception
+    {
+        final OutputManager outputManager = createOutputManager(OutputMode.STREAMING);
+        outputManager.setFailFast(true);
+        outputManager.add("good");
+        Assert.assertNotNull(outputManager.getPendingWriter());
+        Assert.assertNotNull(outputManager.getIncrementalComparison());
+
+        outputManager.abandonUnwrittenOutput();
+        Assert.assertNull(outputManager.getPendingWriter());
+        Assert.assertNull(outputManager.getIncrementalComparison());
+        Assert.assertFalse(outputManager.hasUnwrittenOutput());
+
+        final OutputManager buffered = createOutputManager(OutputMode.BUFFERED);
+        buffered.add("good");
+        buffered.abandonUnwrittenOutput();
+        Assert.assertFalse(buffered.hasUnwrittenOutput());
+    }
+
+
+    @Test
+    public void testStreamingWithNoOutputWritesEmptyFile() throws Exception
+    {
+        final OutputManager streaming = createOutputManager(OutputMode.STREAMING);
+        Assert.assertFalse(streaming.hasUnwrittenOutput());
+
+        streaming.writeFile("empty.txt");
+
+        Assert.assertEquals(0, new File(_outputDirectory, "empty.txt").length());
+    }
+
+
+    protected OutputManager createOutputManager(final OutputMode outputMode)
+    {
+        final OutputManager outputManager = new OutputManager();
+        outputManager.setTestingContext(_testingContext);
+        outputManager.setOutputMode(outputMode);
+        return outputManager;
+    }
+
+
+    protected void writeSampleOutput(final OutputManager outputManager, final String fileName)
+    {
+        outputManager.add("first line");
+        outputManager.addBlankLine();
+        outputManager.add(Arrays.asList("a", "b"));
+        outputManager.addAsString(42);
+        Assert.assertTrue(outputManager.hasUnwrittenOutput());
+
+        outputManager.writeFile(fileName);
+        Assert.assertFalse(outputManager.hasUnwrittenOutput());
+    }
+}
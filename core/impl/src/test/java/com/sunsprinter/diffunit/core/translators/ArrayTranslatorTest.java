@@ -0,0 +1,98 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Tests the functionality of the {@link ArrayTranslator} and {@link ByteArrayTranslator} classes.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class ArrayTranslatorTest
+{
+    @Test
+    public void testPrimitiveArraysTranslateLikeBoxedElements() throws Exception
+    {
+        final ArrayTranslator translator = new ArrayTranslator()
+                .<ArrayTranslator>use(new ToStringTranslator<Object>())
+                .<ArrayTranslator>separateElementsWith(",")
+                .surroundWith("|");
+
+        Assert.assertEquals("|1,-2,3|", translator.translate(new int[]{1, -2, 3}));
+        Assert.assertEquals(translator.translate(new Object[]{1.0d, 2.5d}), translator.translate(new double[]{1, 2.5}));
+        Assert.assertEquals("|1.0,2.5|", translator.translate(new double[]{1, 2.5}));
+        Assert.assertEquals("|9223372036854775807|", translator.translate(new long[]{Long.MAX_VALUE}));
+        Assert.assertEquals("|a,b|", translator.translate(new char[]{'a', 'b'}));
+        Assert.assertEquals("|true|", translator.translate(new boolean[]{true}));
+        Assert.assertEquals("|1.5|", translator.translate(new float[]{1.5f}));
+        Assert.assertEquals("|-128|", translator.translate(new byte[]{-128}));
+        Assert.assertEquals("|x,y|", translator.translate(new String[]{"x", "y"}));
+        Assert.assertEquals("", translator.translate(new int[0]));
+    }
+
+
+    @Test
+    public void testFloatCharAndBooleanArrays() throws Exception
+    {
+        final ArrayTranslator translator = new ArrayTranslator()
+                .<ArrayTranslator>use(new ToStringTranslator<Object>())
+                .separateElementsWith(",");
+
+        final float[] floats = {0.1f, -0.0f, Float.NaN, Float.NEGATIVE_INFINITY, 1e10f, Float.MIN_VALUE};
+        Assert.assertEquals("0.1,-0.0,NaN,-Infinity,1.0E10,1.4E-45", translator.translate(floats));
+        Assert.assertEquals(translator.translate(new Object[]{0.1f, -0.0f, Float.NaN, Float.NEGATIVE_INFINITY, 1e10f,
+                                                               Float.MIN_VALUE}),
+                            translator.translate(floats));
+
+        Assert.assertEquals("a, ,\u00e9,\n", translator.translate(new char[]{'a', ' ', '\u00e9', '\n'}));
+        Assert.assertEquals(translator.translate(new Object[]{'a', ' ', '\u00e9', '\n'}),
+                            translator.translate(new char[]{'a', ' ', '\u00e9', '\n'}));
+
+        Assert.assertEquals("true,false,false", translator.translate(new boolean[]{true, false, false}));
+        Assert.assertEquals(translator.translate(new Object[]{true, false, false}),
+                            translator.translate(new boolean[]{true, false, false}));
+    }
+
+
+    @Test
+    public void testByteArrayEncodings() throws Exception
+    {
+        final byte[] bytes = {0, 1, 127, -128, -1};
+
+        final ByteArrayTranslator translator = new ByteArrayTranslator();
+        Assert.assertEquals("00017f80ff", translator.translate(bytes));
+
+        translator.encodeAs(ByteArrayTranslator.Encoding.BASE_64);
+        Assert.assertEquals("AAF/gP8=", translator.translate(bytes));
+        Assert.assertEquals("", translator.translate(new byte[0]));
+        Assert.assertEquals("AA==", translator.translate(new byte[1]));
+        Assert.assertEquals("AAAA", translator.translate(new byte[3]));
+
+        translator.encodeAs(ByteArrayTranslator.Encoding.HEX).breakLinesAfter(4);
+        Assert.assertEquals("0001\n7f80\nff", translator.translate(bytes));
+        Assert.assertEquals("0001\n7f80", translator.translate(new byte[]{0, 1, 127, -128}));
+
+        final StringBuilder sink = new StringBuilder("prefix:");
+        translator.translate(bytes, sink);
+        Assert.assertEquals("prefix:0001\n7f80\nff", sink.toString());
+    }
+}
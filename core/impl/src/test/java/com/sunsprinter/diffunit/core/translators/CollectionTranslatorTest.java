@@ -0,0 +1,120 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Tests the element limits of the {@link AbstractCollectionTranslator} class.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class CollectionTranslatorTest
+{
+    private static final String SUMMARY_PATTERN = "7 of 10 elements not shown, FNV-1a hash [0-9a-f]{16}";
+
+
+    @Test
+    public void testLimitsShowSomeElementsAndSummarizeTheRest() throws Exception
+    {
+        final List<Object> elements = createElements(10);
+        final int[] primitiveElements = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+        final String first = createCollectionTranslator().limitToFirst(3).translate(elements);
+        Assert.assertTrue(first, first.matches("1,2,3," + SUMMARY_PATTERN));
+        Assert.assertEquals(first, createArrayTranslator().limitToFirst(3).translate(primitiveElements));
+
+        final String last = createCollectionTranslator().limitToLast(3).translate(elements);
+        Assert.assertTrue(last, last.matches("8,9,10," + SUMMARY_PATTERN));
+        Assert.assertEquals(last, createIteratorTranslator().limitToLast(3).translate(elements.iterator()));
+        Assert.assertEquals(last, createArrayTranslator().limitToLast(3).translate(primitiveElements));
+
+        final String sample = createCollectionTranslator().sampleEvery(4).translate(elements);
+        Assert.assertTrue(sample, sample.matches("1,5,9," + SUMMARY_PATTERN));
+        Assert.assertEquals(sample, createIteratorTranslator().sampleEvery(4).translate(elements.iterator()));
+
+        Assert.assertEquals("1,2", createCollectionTranslator().limitToLast(3).translate(createElements(2)));
+        Assert.assertEquals("1,2", createIteratorTranslator().limitToLast(3).translate(createElements(2).iterator()));
+    }
+
+
+    @Test
+    public void testChangeToElementNotShownChangesHash() throws Exception
+    {
+        final CollectionTranslator<Collection<Object>> translator = createCollectionTranslator().limitToFirst(3);
+
+        final List<Object> elements = createElements(10);
+        final String before = translator.translate(elements);
+        elements.set(8, 99);
+        Assert.assertFalse(before.equals(translator.translate(elements)));
+
+        // Moving text from one element to the next changes the hash too.
+        final List<Object> joined = createElements(10);
+        joined.set(8, "910");
+        joined.set(9, "");
+        Assert.assertFalse(before.equals(translator.translate(joined)));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLimitMustBePositive() throws Exception
+    {
+        createCollectionTranslator().limitToFirst(0);
+    }
+
+
+    private List<Object> createElements(final int count)
+    {
+        final List<Object> elements = new ArrayList<Object>();
+        for (int i = 1; i <= count; i++)
+        {
+            elements.add(i);
+        }
+        return elements;
+    }
+
+
+    private CollectionTranslator<Collection<Object>> createCollectionTranslator()
+    {
+        return new CollectionTranslator<Collection<Object>>()
+                .<CollectionTranslator<Collection<Object>>>separateElementsWith(",")
+                .use(new ToStringTranslator<Object>());
+    }
+
+
+    private IteratorTranslator<Iterator<Object>> createIteratorTranslator()
+    {
+        return new IteratorTranslator<Iterator<Object>>()
+                .<IteratorTranslator<Iterator<Object>>>separateElementsWith(",")
+                .use(new ToStringTranslator<Object>());
+    }
+
+
+    private ArrayTranslator createArrayTranslator()
+    {
+        return new ArrayTranslator().<ArrayTranslator>separateElementsWith(",").use(new ToStringTranslator<Object>());
+    }
+}
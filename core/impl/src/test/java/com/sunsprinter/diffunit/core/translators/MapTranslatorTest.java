@@ -0,0 +1,119 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Tests the functionality of the {@link MapTranslator} class.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class MapTranslatorTest
+{
+    private MapTranslator<Map<Object, Object>> _translator;
+
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _translator = new MapTranslator<Map<Object, Object>>()
+                .<MapTranslator<Map<Object, Object>>>separateElementsWith(",")
+                .use(new ITranslator<Object>()
+                {
+                    @Override
+                    public String translate(final Object object) throws TranslationException
+                    {
+                        final MapTranslator.KeyValuePair keyValuePair = (MapTranslator.KeyValuePair)object;
+                        return keyValuePair.getKey() + "=" + keyValuePair.getValue();
+                    }
+                });
+    }
+
+
+    @Test
+    public void testUnorderedMapsAreSortedByKeyString() throws Exception
+    {
+        final Map<Object, Object> map = new HashMap<Object, Object>();
+        map.put("b", 2);
+        map.put("a", 1);
+        map.put(10, "ten");
+        map.put(9, "nine");
+        map.put(null, "none");
+        Assert.assertEquals("null=none,10=ten,9=nine,a=1,b=2", _translator.translate(map));
+
+        // Keys with the same string keep their own values.
+        final Map<Object, Object> sameStrings = new HashMap<Object, Object>();
+        sameStrings.put(1, "int");
+        sameStrings.put("1", "string");
+        final String translation = _translator.translate(sameStrings);
+        Assert.assertTrue(translation, translation.equals("1=int,1=string") || translation.equals("1=string,1=int"));
+    }
+
+
+    @Test
+    public void testLargeMapMatchesTreeMapOrder() throws Exception
+    {
+        final Random random = new Random(42);
+        final Map<Object, Object> map = new HashMap<Object, Object>();
+        for (int i = 0; i < 1000; i++)
+        {
+            map.put(Integer.toString(random.nextInt(100000)), i);
+        }
+
+        final StringBuilder expected = new StringBuilder();
+        for (final Map.Entry<Object, Object> entry : new TreeMap<Object, Object>(map).entrySet())
+        {
+            expected.append(expected.length() == 0 ? "" : ",").append(entry.getKey()).append('=').append(entry.getValue());
+        }
+
+        Assert.assertEquals(expected.toString(), _translator.translate(map));
+    }
+
+
+    @Test
+    public void testOrderedMapsKeepTheirOrder() throws Exception
+    {
+        final Map<Object, Object> sortedMap = new TreeMap<Object, Object>(Collections.reverseOrder());
+        sortedMap.put("a", 1);
+        sortedMap.put("b", 2);
+        Assert.assertEquals("b=2,a=1", _translator.translate(sortedMap));
+
+        final Map<Object, Object> linkedMap = new LinkedHashMap<Object, Object>();
+        linkedMap.put("b", 2);
+        linkedMap.put("a", 1);
+        Assert.assertEquals("b=2,a=1", _translator.translate(linkedMap));
+
+        _translator.preserveInsertionOrder(false);
+        Assert.assertEquals("a=1,b=2", _translator.translate(linkedMap));
+
+        _translator.setKeyComparator(Collections.reverseOrder());
+        Assert.assertEquals("b=2,a=1", _translator.translate(new HashMap<Object, Object>(linkedMap)));
+    }
+}
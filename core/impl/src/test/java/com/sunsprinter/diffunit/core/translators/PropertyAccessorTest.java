@@ -0,0 +1,115 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sunsprinter.diffunit.core.instancetracking.ObjectInstanceTracker;
+
+
+/**
+ * Tests the functionality of the {@link PropertyAccessor} class.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class PropertyAccessorTest
+{
+    @Test
+    public void testReadMethodOfNonPublicClassIsInvokedReflectively() throws Exception
+    {
+        final PropertyDescriptor propertyDescriptor = new PropertyDescriptor("value", HiddenBean.class, "getValue", null);
+        Assert.assertNull(PropertyAccessor.createReadMethodHandle(propertyDescriptor.getReadMethod()));
+
+        Assert.assertEquals("hidden", new PropertyAccessor(propertyDescriptor).read(new HiddenBean()));
+    }
+
+
+    @Test
+    public void testReadMethodFailureIsWrappedAsByReflection() throws Exception
+    {
+        final PropertyDescriptor publicDescriptor = new PropertyDescriptor("value", FailingBean.class, "getValue", null);
+        Assert.assertNotNull(PropertyAccessor.createReadMethodHandle(publicDescriptor.getReadMethod()));
+        assertReadFailsWithCause(new PropertyAccessor(publicDescriptor), new FailingBean());
+
+        final PropertyDescriptor hiddenDescriptor = new PropertyDescriptor("failure", HiddenBean.class, "getFailure", null);
+        assertReadFailsWithCause(new PropertyAccessor(hiddenDescriptor), new HiddenBean());
+    }
+
+
+    @Test
+    public void testTranslatorReportsReadMethodFailureAsBefore() throws Exception
+    {
+        final ToXmlTranslator<Object> translator = new ToXmlTranslator<Object>()
+                .<ToXmlTranslator<Object>>use(new ToStringTranslator<Object>())
+                .use(new ObjectInstanceTracker());
+        try
+        {
+            translator.translate(new FailingBean());
+            Assert.fail("Expected the translation to fail.");
+        }
+        catch (final TranslationException e)
+        {
+            Assert.assertTrue(e.getCause() instanceof InvocationTargetException);
+            Assert.assertTrue(e.getCause().getCause() instanceof IllegalStateException);
+        }
+    }
+
+
+    protected void assertReadFailsWithCause(final PropertyAccessor accessor, final Object object) throws Exception
+    {
+        try
+        {
+            accessor.read(object);
+            Assert.fail("Expected the read method to fail.");
+        }
+        catch (final InvocationTargetException e)
+        {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+            Assert.assertEquals("broken", e.getCause().getMessage());
+        }
+    }
+
+
+    public static class FailingBean
+    {
+        public Object getValue()
+        {
+            throw new IllegalStateException("broken");
+        }
+    }
+
+
+    static class HiddenBean
+    {
+        public Object getValue()
+        {
+            return "hidden";
+        }
+
+
+        public Object getFailure()
+        {
+            throw new IllegalStateException("broken");
+        }
+    }
+}
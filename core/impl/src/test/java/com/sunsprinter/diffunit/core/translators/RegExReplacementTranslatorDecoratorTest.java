@@ -0,0 +1,190 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sunsprinter.diffunit.core.context.TestingContext;
+import com.sunsprinter.diffunit.core.context.TestingContextHolder;
+
+
+/**
+ * Tests the functionality of the {@link RegExReplacementTranslatorDecorator} class.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class RegExReplacementTranslatorDecoratorTest
+{
+    private static final String TEXT = "java.lang.IllegalStateException: id=42 user=bob\n" +
+                                       "\tat com.example.Foo.bar(Foo.java:10)\n" +
+                                       "\tat com.example.Foo.main(Foo.java:5)\n" +
+                                       "Caused by: id=7 user=alice";
+
+
+    @Test
+    public void testReplacements() throws Exception
+    {
+        final String expected = "java.lang.IllegalStateException: [id 42] user=<user>\n" +
+                                "<snip>" +
+                                "Caused by: [id 7] user=<user>";
+
+        Assert.assertEquals(expected, translate(false));
+        Assert.assertEquals(expected, translate(true));
+    }
+
+
+    @Test
+    public void testReplacementSyntaxMatchesMatcher() throws Exception
+    {
+        final String[] replacements = {"$1", "$12", "\\$1", "a\\\\b", "$0-$2", "$10", "$3$1", "7$2"};
+        for (final String replacement : replacements)
+        {
+            final String expected = "xyz w".replaceAll("(x)(y)(z)", replacement).replaceAll("w", "$0$0");
+            for (final boolean fuse : new boolean[]{false, true})
+            {
+                final ITranslator<Object> translator =
+                        new RegExReplacementTranslatorDecorator<ITranslator<Object>>(createDelegate("xyz w"))
+                                .<RegExReplacementTranslatorDecorator<ITranslator<Object>>>fuseReplacementPairs(fuse)
+                                .<RegExReplacementTranslatorDecorator<ITranslator<Object>>>add(new RegExReplacementPair("w", "$0$0"),
+                                                                                                 new RegExReplacementPair("(x)(y)(z)", replacement))
+                                .getProxy();
+                Assert.assertEquals(replacement, expected, translator.translate(null));
+            }
+        }
+    }
+
+
+    @Test
+    public void testNamedGroupReferences() throws Exception
+    {
+        final ITranslator<Object> translator =
+                new RegExReplacementTranslatorDecorator<ITranslator<Object>>(createDelegate("id=42 user=bob"))
+                        .<RegExReplacementTranslatorDecorator<ITranslator<Object>>>fuseReplacementPairs(true)
+                        .<RegExReplacementTranslatorDecorator<ITranslator<Object>>>add(new RegExReplacementPair("user=(?<name>[a-z]+)", "${name}@"),
+                                                                                         new RegExReplacementPair("id=([0-9]+)", "[$1]"))
+                        .getProxy();
+        Assert.assertEquals("[42] bob@", translator.translate(null));
+    }
+
+
+    @Test
+    public void testPairWithoutPatternIsCompiledByReplacer() throws Exception
+    {
+        final RegExReplacementPair pair = new RegExReplacementPair("id=([0-9]+)", "[$1]")
+        {
+            @Override
+            public Pattern getPattern()
+            {
+                return null;
+            }
+        };
+
+        for (final boolean fuse : new boolean[]{false, true})
+        {
+            final ITranslator<Object> translator =
+                    new RegExReplacementTranslatorDecorator<ITranslator<Object>>(createDelegate("id=42 user=bob"))
+                            .<RegExReplacementTranslatorDecorator<ITranslator<Object>>>fuseReplacementPairs(fuse)
+                            .<RegExReplacementTranslatorDecorator<ITranslator<Object>>>add(pair, new RegExReplacementPair("user=[a-z]+", "user"))
+                            .getProxy();
+            Assert.assertEquals("[42] user", translator.translate(null));
+        }
+    }
+
+
+    @Test
+    public void testRootTranslatorDecorator() throws Exception
+    {
+        final RootTranslator rootTranslator = new RootTranslator();
+        final RegExReplacementRootTranslatorDecorator decorator = new RegExReplacementRootTranslatorDecorator(rootTranslator)
+                .add(new RegExReplacementPair("id=([0-9]+)", "[id $1]"));
+
+        decorator.bind(new ToStringTranslator<Object>().prependToOutput("id="), Integer.class);
+        Assert.assertEquals("[id 42]", decorator.translate(42));
+        Assert.assertEquals("id=42", rootTranslator.translate(42));
+        Assert.assertSame(decorator, decorator.getProxy());
+    }
+
+
+    @Test
+    public void testReplacementsAppliedOnceToNestedTranslation() throws Exception
+    {
+        final int[] replacementCount = {0};
+        final RootTranslator rootTranslator = new RootTranslator();
+        final RegExReplacementRootTranslatorDecorator decorator = new RegExReplacementRootTranslatorDecorator(rootTranslator)
+                .add(new RegExReplacementPair("id[0-9]+", new ITranslator<String>()
+                {
+                    @Override
+                    public String translate(final String object) throws TranslationException
+                    {
+                        replacementCount[0]++;
+                        return "<id>";
+                    }
+                }));
+        decorator.bind(new CollectionTranslator<Collection<Object>>(), List.class);
+        decorator.bind(new ToStringTranslator<Object>(), String.class);
+
+        final TestingContext testingContext = new TestingContext();
+        testingContext.setRootTranslator(decorator);
+        testingContext.setUndecoratedRootTranslator(rootTranslator);
+        TestingContextHolder.set(testingContext);
+        try
+        {
+            final List<?> nested = Arrays.asList(Arrays.asList("id1", "id2"), Arrays.asList("id3"));
+            final String translation = decorator.translate(nested);
+            Assert.assertEquals(3, replacementCount[0]);
+            Assert.assertEquals(rootTranslator.translate(nested).replaceAll("id[0-9]+", "<id>"), translation);
+        }
+        finally
+        {
+            TestingContextHolder.clear();
+        }
+    }
+
+
+    protected String translate(final boolean fuse) throws Exception
+    {
+        final RegExReplacementTranslatorDecorator<ITranslator<Object>> decorator =
+                new RegExReplacementTranslatorDecorator<ITranslator<Object>>(createDelegate(TEXT));
+        decorator.fuseReplacementPairs(fuse);
+        decorator.add(new StackTraceReplacementPair("<snip>"),
+                      new RegExReplacementPair("id=([0-9]+)", "[id $1]"),
+                      new RegExReplacementPair("user=[a-z]+", "user=<user>"));
+
+        return decorator.getProxy().translate(null);
+    }
+
+
+    protected ITranslator<Object> createDelegate(final String text)
+    {
+        return new ITranslator<Object>()
+        {
+            @Override
+            public String translate(final Object object) throws TranslationException
+            {
+                return text;
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sunsprinter.diffunit.core.instancetracking.ObjectInstanceTracker;
+
+
+/**
+ * Tests the functionality of the {@link ThrowableMessageTranslator} class.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class ThrowableMessageTranslatorTest
+{
+    @Test
+    public void testSubclassOverrideIsUsedWhetherReturningOrAppending() throws Exception
+    {
+        final ThrowableMessageTranslator<Throwable> translator = new ThrowableMessageTranslator<Throwable>()
+        {
+            @Override
+            protected void translateSingle(final Throwable throwable, final StringBuilder sink)
+            {
+                sink.append('[').append(throwable.getMessage()).append(']');
+            }
+        }.use(new ObjectInstanceTracker());
+
+        final Throwable throwable = new IllegalStateException("outer", new RuntimeException("inner"));
+        final String expected = String.format("[outer]%n  caused by [inner]");
+
+        Assert.assertEquals(expected, translator.translate(throwable));
+
+        final RootTranslator rootTranslator = new RootTranslator();
+        rootTranslator.bind(translator, Throwable.class);
+        final StringBuilder sink = new StringBuilder("prefix:");
+        rootTranslator.translate(throwable, sink);
+        Assert.assertEquals("prefix:" + expected, sink.toString());
+    }
+}
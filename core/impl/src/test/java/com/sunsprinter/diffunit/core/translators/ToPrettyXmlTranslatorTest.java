@@ -0,0 +1,272 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sunsprinter.diffunit.core.instancetracking.ObjectInstanceTracker;
+
+
+/**
+ * Tests the functionality of the {@link ToPrettyXmlTranslator} class.  The expected output was produced by the
+ * translator as it was when it reformatted its XML with an XML parser, on a platform whose default character set is
+ * UTF-8.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class ToPrettyXmlTranslatorTest
+{
+    @Test
+    public void testNonAsciiText() throws Exception
+    {
+        final Bean bean = new Bean("café", "naïve – ünïcödé");
+
+        Assert.assertEquals(String.format("<Bean>%n" +
+                                          "    <first>café</first>%n" +
+                                          "    <second>naïve – ünïcödé</second>%n" +
+                                          "</Bean>%n"),
+                            translate(bean, false, false));
+        Assert.assertEquals(String.format("<Bean instanceNumber=\"1\">%n" +
+                                          "    <first instanceNumber=\"1\">café</first>%n" +
+                                          "    <second instanceNumber=\"2\">naïve – ünïcödé</second>%n" +
+                                          "</Bean>%n"),
+                            translate(bean, true, true));
+    }
+
+
+    @Test
+    public void testEmptyAndWhitespaceOnlyValues() throws Exception
+    {
+        final Bean bean = new Bean("", "   ");
+
+        Assert.assertEquals(String.format("<Bean>%n" +
+                                          "    <first/>%n" +
+                                          "    <second></second>%n" +
+                                          "</Bean>%n"),
+                            translate(bean, false, false));
+        Assert.assertEquals(String.format("<Bean instanceNumber=\"1\">%n" +
+                                          "    <first instanceNumber=\"1\"/>%n" +
+                                          "    <second instanceNumber=\"2\"></second>%n" +
+                                          "</Bean>%n"),
+                            translate(bean, true, true));
+        Assert.assertEquals(String.format("<Empty/>%n"), translate(new Empty(), false, false));
+    }
+
+
+    @Test
+    public void testTextIsTrimmedAndLineBreaksNormalized() throws Exception
+    {
+        Assert.assertEquals(String.format("<Bean>%n" +
+                                          "    <first>padded</first>%n" +
+                                          "    <second>line one\nline two</second>%n" +
+                                          "</Bean>%n"),
+                            translate(new Bean("  padded\t", "line one\nline two"), false, false));
+        Assert.assertEquals(String.format("<Bean>%n" +
+                                          "    <first>carriage\nreturn</first>%n" +
+                                          "    <second>cr only</second>%n" +
+                                          "</Bean>%n"),
+                            translate(new Bean("carriage\r\nreturn", "\rcr only\r"), true, false));
+    }
+
+
+    @Test
+    public void testEscapedValues() throws Exception
+    {
+        Assert.assertEquals(String.format("<Bean>%n" +
+                                          "    <first>quotes &quot; and &apos; and &gt; &amp; &lt;</first>%n" +
+                                          "    <second>a &amp; b</second>%n" +
+                                          "</Bean>%n"),
+                            translate(new Bean("quotes \" and ' and > & <", "a & b"), true, false));
+    }
+
+
+    @Test
+    public void testNestedMapsAreIndented() throws Exception
+    {
+        Assert.assertEquals(String.format("<KeyValuePair>%n" +
+                                          "    <key>a</key>%n" +
+                                          "    <value>1</value>%n" +
+                                          "</KeyValuePair>%n" +
+                                          "\n" +
+                                          "<KeyValuePair>%n" +
+                                          "    <key>b</key>%n" +
+                                          "    <value>%n" +
+                                          "        <KeyValuePair>%n" +
+                                          "            <key>c</key>%n" +
+                                          "            <value>x</value>%n" +
+                                          "        </KeyValuePair>%n" +
+                                          "        <KeyValuePair>%n" +
+                                          "            <key>d</key>%n" +
+                                          "            <value>café</value>%n" +
+                                          "        </KeyValuePair>%n" +
+                                          "    </value>%n" +
+                                          "</KeyValuePair>%n" +
+                                          "\n" +
+                                          "<KeyValuePair>%n" +
+                                          "    <key>e</key>%n" +
+                                          "    <value>%n" +
+                                          "        <Bean>%n" +
+                                          "            <first/>%n" +
+                                          "            <second>y</second>%n" +
+                                          "        </Bean>%n" +
+                                          "    </value>%n" +
+                                          "</KeyValuePair>%n"),
+                            translate(createNestedMap(), false, false));
+    }
+
+
+    @Test
+    public void testNestedMapsAreNumberedAsBefore() throws Exception
+    {
+        Assert.assertEquals(String.format("<KeyValuePair instanceNumber=\"1\">%n" +
+                                          "    <key instanceNumber=\"1\">a</key>%n" +
+                                          "    <value instanceNumber=\"1\">1</value>%n" +
+                                          "</KeyValuePair>%n" +
+                                          "\n" +
+                                          "<KeyValuePair instanceNumber=\"2\">%n" +
+                                          "    <key instanceNumber=\"2\">b</key>%n" +
+                                          "    <value instanceNumber=\"1\">%n" +
+                                          "        <KeyValuePair instanceNumber=\"3\">%n" +
+                                          "            <key instanceNumber=\"3\">c</key>%n" +
+                                          "            <value instanceNumber=\"4\">x</value>%n" +
+                                          "        </KeyValuePair>%n" +
+                                          "        <KeyValuePair instanceNumber=\"4\">%n" +
+                                          "            <key instanceNumber=\"5\">d</key>%n" +
+                                          "            <value instanceNumber=\"6\">café</value>%n" +
+                                          "        </KeyValuePair>%n" +
+                                          "    </value>%n" +
+                                          "</KeyValuePair>%n" +
+                                          "\n" +
+                                          "<KeyValuePair instanceNumber=\"5\">%n" +
+                                          "    <key instanceNumber=\"7\">e</key>%n" +
+                                          "    <value instanceNumber=\"1\">%n" +
+                                          "        <Bean instanceNumber=\"1\">%n" +
+                                          "            <first instanceNumber=\"8\"/>%n" +
+                                          "            <second instanceNumber=\"9\">y</second>%n" +
+                                          "        </Bean>%n" +
+                                          "    </value>%n" +
+                                          "</KeyValuePair>%n"),
+                            translate(createNestedMap(), false, true));
+    }
+
+
+    @Test
+    public void testEscapedNestedMapsAreText() throws Exception
+    {
+        Assert.assertEquals(String.format("<KeyValuePair>%n" +
+                                          "    <key>a</key>%n" +
+                                          "    <value>1</value>%n" +
+                                          "</KeyValuePair>%n" +
+                                          "\n" +
+                                          "<KeyValuePair>%n" +
+                                          "    <key>b</key>%n" +
+                                          "    <value>&lt;KeyValuePair&gt;%n" +
+                                          "    &lt;key&gt;c&lt;/key&gt;%n" +
+                                          "    &lt;value&gt;x&lt;/value&gt;%n" +
+                                          "&lt;/KeyValuePair&gt;%n" +
+                                          "\n" +
+                                          "&lt;KeyValuePair&gt;%n" +
+                                          "    &lt;key&gt;d&lt;/key&gt;%n" +
+                                          "    &lt;value&gt;café&lt;/value&gt;%n" +
+                                          "&lt;/KeyValuePair&gt;</value>%n" +
+                                          "</KeyValuePair>%n" +
+                                          "\n" +
+                                          "<KeyValuePair>%n" +
+                                          "    <key>e</key>%n" +
+                                          "    <value>&lt;Bean&gt;%n" +
+                                          "    &lt;first/&gt;%n" +
+                                          "    &lt;second&gt;y&lt;/second&gt;%n" +
+                                          "&lt;/Bean&gt;</value>%n" +
+                                          "</KeyValuePair>%n"),
+                            translate(createNestedMap(), true, false));
+    }
+
+
+    protected Map<Object, Object> createNestedMap()
+    {
+        final Map<Object, Object> inner = new TreeMap<Object, Object>();
+        inner.put("c", "x");
+        inner.put("d", "café");
+
+        final Map<Object, Object> outer = new TreeMap<Object, Object>();
+        outer.put("a", 1);
+        outer.put("b", inner);
+        outer.put("e", new Bean("", "  y  "));
+        return outer;
+    }
+
+
+    /**
+     * Translates an object with a root translator that has maps, their entries and beans bound as the initializer
+     * binds them, apart from the settings of the XML translator.
+     */
+    protected String translate(final Object object,
+                               final boolean escape,
+                               final boolean instanceNumbers) throws Exception
+    {
+        final ObjectInstanceTracker tracker = new ObjectInstanceTracker();
+        final RootTranslator rootTranslator = new RootTranslator().use(tracker);
+        rootTranslator.bind(new ToStringTranslator<Object>(), String.class, Integer.class);
+        rootTranslator.bind(new MapTranslator<Map<Object, Object>>().use(rootTranslator), Map.class);
+        rootTranslator.bind(new ToPrettyXmlTranslator<Object>()
+                                    .<ToPrettyXmlTranslator<Object>>use(rootTranslator)
+                                    .<ToPrettyXmlTranslator<Object>>use(tracker)
+                                    .<ToPrettyXmlTranslator<Object>>escapePropertyValues(escape)
+                                    .<ToPrettyXmlTranslator<Object>>includeInnerElementInstanceNumber(instanceNumbers)
+                                    .includeOuterElementInstanceNumber(instanceNumbers),
+                            MapTranslator.KeyValuePair.class, Bean.class, Empty.class);
+
+        return rootTranslator.translate(object);
+    }
+
+
+    public static class Bean
+    {
+        private final Object _first;
+        private final Object _second;
+
+
+        public Bean(final Object first, final Object second)
+        {
+            _first = first;
+            _second = second;
+        }
+
+
+        public Object getFirst()
+        {
+            return _first;
+        }
+
+
+        public Object getSecond()
+        {
+            return _second;
+        }
+    }
+
+
+    public static class Empty
+    {
+    }
+}
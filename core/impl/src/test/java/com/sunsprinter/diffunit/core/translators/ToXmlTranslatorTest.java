@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sunsprinter.diffunit.core.instancetracking.ObjectInstanceTracker;
+
+
+/**
+ * Tests the functionality of the {@link ToXmlTranslator} class.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class ToXmlTranslatorTest
+{
+    @Test
+    public void testPropertyPlanFollowsConfiguration() throws Exception
+    {
+        final ToXmlTranslator<Object> translator = new ToXmlTranslator<Object>()
+                .<ToXmlTranslator<Object>>use(new ToStringTranslator<Object>())
+                .use(new ObjectInstanceTracker());
+
+        Assert.assertEquals("<Bean><name>n</name><size>3</size></Bean>", translator.translate(new Bean("n", 3)));
+        Assert.assertEquals("<Bean><name>m</name><size>4</size></Bean>", translator.translate(new Bean("m", 4)));
+
+        translator.skipProperties("name");
+        Assert.assertEquals("<Bean><size>3</size></Bean>", translator.translate(new Bean("n", 3)));
+
+        translator.includeEnclosingElement(false).translateProperties("size", "name");
+        Assert.assertEquals("<size>3</size>", translator.translate(new Bean("n", 3)));
+    }
+
+
+    @Test
+    public void testAppendsToSinkAsTranslateWould() throws Exception
+    {
+        final Bean bean = new Bean("<a&b>", 3);
+
+        final ToXmlTranslator<Object> translator = new ToXmlTranslator<Object>()
+                .<ToXmlTranslator<Object>>use(new ToStringTranslator<Object>())
+                .<ToXmlTranslator<Object>>includeOuterElementInstanceNumber(true)
+                .<ToXmlTranslator<Object>>includeInnerElementInstanceNumber(true)
+                .escapePropertyValues(true);
+
+        translator.use(new ObjectInstanceTracker());
+        final StringBuilder sink = new StringBuilder("prefix:");
+        translator.translate(bean, sink);
+
+        translator.use(new ObjectInstanceTracker());
+        Assert.assertEquals("prefix:" + translator.translate(bean), sink.toString());
+        Assert.assertEquals("prefix:<Bean instanceNumber=\"1\"><name instanceNumber=\"1\">&lt;a&amp;b&gt;</name>" +
+                            "<size instanceNumber=\"1\">3</size></Bean>",
+                            sink.toString());
+    }
+
+
+    @Test
+    public void testWholeGraphTranslatesIntoOneSink() throws Exception
+    {
+        final RootTranslator rootTranslator = new RootTranslator();
+        rootTranslator.bind(new CollectionTranslator<Collection<Object>>()
+                                    .<CollectionTranslator<Collection<Object>>>surroundWith("|")
+                                    .use(rootTranslator), Collection.class);
+        rootTranslator.bind(new ToXmlTranslator<Object>()
+                                    .<ToXmlTranslator<Object>>use(rootTranslator)
+                                    .use(new ObjectInstanceTracker()), Bean.class);
+
+        final List<Object> graph = Arrays.<Object>asList(new Bean("n", 3), Arrays.asList(new Bean("m", 4)));
+        final StringBuilder sink = new StringBuilder("prefix:");
+        rootTranslator.translate(graph, sink);
+
+        final String expected = "|<Bean><name>n</name><size>3</size></Bean>\n|<Bean><name>m</name><size>4</size></Bean>||";
+        Assert.assertEquals("prefix:" + expected, sink.toString());
+        Assert.assertEquals(expected, rootTranslator.translate(graph));
+        Assert.assertEquals("", rootTranslator.translate(new ArrayList<Object>()));
+    }
+
+
+    public static class Bean
+    {
+        private final String _name;
+        private final int _size;
+
+
+        public Bean(final String name, final int size)
+        {
+            _name = name;
+            _size = size;
+        }
+
+
+        public String getName()
+        {
+            return _name;
+        }
+
+
+        public int getSize()
+        {
+            return _size;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2012 Kevan Dunsmore.  All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.sunsprinter.diffunit.core.translators;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sunsprinter.diffunit.core.instancetracking.ObjectInstanceTracker;
+
+
+/**
+ * Tests the functionality of the {@link TypeBindingTranslator} class.
+ *
+ * @author Kevan Dunsmore
+ * @created 2026/10/17
+ */
+public class TypeBindingTranslatorTest
+{
+    private RootTranslator _rootTranslator;
+
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _rootTranslator = new RootTranslator().use(new ObjectInstanceTracker());
+        _rootTranslator.bind(new CollectionTranslator<Collection<Object>>()
+                                     .<CollectionTranslator<Collection<Object>>>separateElementsWith(",")
+                                     .<CollectionTranslator<Collection<Object>>>surroundWith("|")
+                                     .use(_rootTranslator), Collection.class);
+    }
+
+
+    @Test
+    public void testCycleIsWrittenAsBackReference() throws Exception
+    {
+        final List<Object> inner = new ArrayList<Object>();
+        final List<Object> outer = new ArrayList<Object>(Arrays.asList("a", inner));
+        inner.add(outer);
+        inner.add("b");
+
+        Assert.assertEquals("|a,|ref java.util.ArrayList#1,b||", _rootTranslator.translate(outer));
+
+        // Anonymous classes have no short name, so the full name is used.
+        final List<Object> anonymous = new ArrayList<Object>()
+        {
+        };
+        anonymous.add(anonymous);
+        Assert.assertEquals(String.format("|ref %s#1|", anonymous.getClass().getName()), _rootTranslator.translate(anonymous));
+
+        // Objects that appear twice without forming a cycle are translated both times.
+        final List<Object> shared = Arrays.<Object>asList("c");
+        Assert.assertEquals("||c|,|c||", _rootTranslator.translate(Arrays.<Object>asList(shared, shared)));
+    }
+
+
+    @Test
+    public void testLimitsWriteBackReferences() throws Exception
+    {
+        final List<Object> deepest = Arrays.<Object>asList("x");
+        final List<Object> middle = Arrays.<Object>asList(deepest);
+        final List<Object> top = Arrays.<Object>asList(middle, "y");
+
+        _rootTranslator.limitDepthTo(2);
+        Assert.assertEquals("||ref java.util.Arrays$ArrayList#1|,y|", _rootTranslator.translate(top));
+
+        _rootTranslator.limitDepthTo(0).limitNodesTo(2);
+        Assert.assertEquals("||ref java.util.Arrays$ArrayList#1|,y|", _rootTranslator.translate(top));
+
+        // The node count starts again for every top level translation.
+        Assert.assertEquals("||ref java.util.Arrays$ArrayList#1|,y|", _rootTranslator.translate(top));
+        Assert.assertEquals("|x|", _rootTranslator.translate(deepest));
+    }
+
+
+    @Test
+    public void testBindingAfterDefaultLookupWins() throws Exception
+    {
+        final TypeBindingTranslator translator = createTypeBindingTranslator();
+        final List<Object> list = new ArrayList<Object>();
+
+        Assert.assertEquals("default", translator.translate(list));
+        translator.bind(createLabelTranslator("list"), List.class);
+        Assert.assertEquals("list", translator.translate(list));
+    }
+
+
+    @Test
+    public void testDefaultTranslatorHonoredForCachedLookups() throws Exception
+    {
+        final TypeBindingTranslator translator = createTypeBindingTranslator();
+        translator.bind(createLabelTranslator("string"), String.class);
+
+        Assert.assertEquals("default", translator.translate(new Object()));
+        Assert.assertEquals("string", translator.translate("a string"));
+
+        translator.setDefaultTranslator(createLabelTranslator("new default"));
+        Assert.assertEquals("new default", translator.translate(new Object()));
+        Assert.assertEquals("string", translator.translate("a string"));
+    }
+
+
+    @Test
+    public void testSubclassResolvesThroughInterfaceOfSuperclass() throws Exception
+    {
+        final TypeBindingTranslator translator = createTypeBindingTranslator();
+        translator.bind(createLabelTranslator("marker"), Marker.class);
+
+        Assert.assertEquals("marker", translator.translate(new Sub()));
+        Assert.assertEquals("marker", translator.translate(new Sub()));
+        Assert.assertEquals("default", translator.translate(new Object()));
+
+        translator.bind(createLabelTranslator("sub"), Sub.class);
+        Assert.assertEquals("sub", translator.translate(new Sub()));
+        Assert.assertEquals("marker", translator.translate(new Base()));
+    }
+
+
+    protected TypeBindingTranslator createTypeBindingTranslator()
+    {
+        final TypeBindingTranslator translator = new TypeBindingTranslator().use(new ObjectInstanceTracker());
+        translator.setDefaultTranslator(createLabelTranslator("default"));
+        return translator;
+    }
+
+
+    protected ITranslator<Object> createLabelTranslator(final String label)
+    {
+        return new ITranslator<Object>()
+        {
+            @Override
+            public String translate(final Object object) throws TranslationException
+            {
+                return label;
+            }
+        };
+    }
+
+
+    public interface Marker
+    {
+    }
+
+
+    public static class Base implements Marker
+    {
+    }
+
+
+    public static class Sub extends Base
+    {
+    }
+}
@@ -22,7 +22,9 @@ import org.junit.runner.Description;
 import org.junit.runners.model.Statement;
 
 import com.sunsprinter.diffunit.core.context.ITestingContext;
+import com.sunsprinter.diffunit.core.context.TestingContextHolder;
 import com.sunsprinter.diffunit.core.initialization.AbstractDiffUnitInitializer;
+import com.sunsprinter.diffunit.core.output.IOutputManager;
 import com.sunsprinter.diffunit.junit.initialization.DiffUnitJUnitInitializer;
 
 
@@ -63,17 +65,30 @@ public class DiffUnitRule implements TestRule
             @Override
             public void evaluate() throws Throwable
             {
-                final ITestingContext context = createInitializer().initialize(getTest(), description.getMethodName());
+                ITestingContext context = null;
+                try
+                {
+                    context = createInitializer().initialize(getTest(), description.getMethodName());
+
+                    base.evaluate();
 
-                base.evaluate();
+                    // If the test hasn't explicitly written a file then we do it here.
+                    if (context.getOutputManager().hasUnwrittenOutput())
+                    {
+                        context.getOutputManager().writeFile(IOutputManager.DEFAULT_FILE_NAME);
+                    }
 
-                // If the test hasn't explicitly written a file then we do it here.
-                if (!context.getOutputObjects().isEmpty())
+                    context.getFileComparer().compareAllFiles();
+                }
+                finally
                 {
-                    context.getOutputManager().writeFile("results.txt");
+                    // A test that failed before its output was written mustn't leave the output files open.
+                    if (context != null)
+                    {
+                        context.getOutputManager().abandonUnwrittenOutput();
+                    }
+                    TestingContextHolder.clear();
                 }
-
-                context.getFileComparer().compareAllFiles();
             }
 
 
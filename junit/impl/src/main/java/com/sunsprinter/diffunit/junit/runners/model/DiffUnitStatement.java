@@ -21,6 +21,7 @@ import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.Statement;
 
 import com.sunsprinter.diffunit.core.context.ITestingContext;
+import com.sunsprinter.diffunit.core.context.TestingContextHolder;
 import com.sunsprinter.diffunit.core.initialization.AbstractDiffUnitInitializer;
 import com.sunsprinter.diffunit.junit.initialization.DiffUnitJUnitInitializer;
 
@@ -85,11 +86,24 @@ public class DiffUnitStatement extends Statement
     @Override
     public void evaluate() throws Throwable
     {
-        final ITestingContext context = createInitializer().initialize(getTest(), getMethod().getMethod().getName());
-
-        getInnerStatement().evaluate();
-
-        context.getFileComparer().compareAllFiles();
+        ITestingContext context = null;
+        try
+        {
+            context = createInitializer().initialize(getTest(), getMethod().getMethod().getName());
+
+            getInnerStatement().evaluate();
+
+            context.getFileComparer().compareAllFiles();
+        }
+        finally
+        {
+            // A test that failed before its output was written mustn't leave the output files open.
+            if (context != null)
+            {
+                context.getOutputManager().abandonUnwrittenOutput();
+            }
+            TestingContextHolder.clear();
+        }
     }
 
 
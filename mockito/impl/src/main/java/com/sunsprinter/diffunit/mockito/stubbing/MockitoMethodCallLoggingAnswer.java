@@ -76,7 +76,7 @@ public class MockitoMethodCallLoggingAnswer<T> implements Answer<T>
 
     protected ITestingContext getTestingContext()
     {
-        return _testingContext == null ? TestingContextHolder.CONTEXT : _testingContext;
+        return _testingContext == null ? TestingContextHolder.get() : _testingContext;
     }
 
 
@@ -52,4 +52,11 @@ public class MockitoMockObjectHexIdsReplacementPair extends RegExReplacementPair
     {
         super(REG_EX, translator);
     }
+
+
+    @Override
+    public String getRequiredLiteral()
+    {
+        return REG_EX.equals(getRegExp()) ? ", hashCode: " : super.getRequiredLiteral();
+    }
 }
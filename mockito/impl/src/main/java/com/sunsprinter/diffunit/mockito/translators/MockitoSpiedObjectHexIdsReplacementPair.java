@@ -53,4 +53,11 @@ public class MockitoSpiedObjectHexIdsReplacementPair extends RegExReplacementPai
     {
         super(REG_EX, translator);
     }
+
+
+    @Override
+    public String getRequiredLiteral()
+    {
+        return REG_EX.equals(getRegExp()) ? "$$EnhancerByMockitoWithCGLIB$$" : super.getRequiredLiteral();
+    }
 }